@@ -5,9 +5,13 @@ import com.wdp.progress.commands.ProgressAdminCommand;
 import com.wdp.progress.commands.ProgressCommand;
 import com.wdp.progress.config.ConfigManager;
 import com.wdp.progress.data.DatabaseManager;
+import com.wdp.progress.data.HistoryCompactor;
 import com.wdp.progress.data.PlayerDataManager;
+import com.wdp.progress.data.ProgressReweighter;
 import com.wdp.progress.listeners.*;
+import com.wdp.progress.progress.PeriodicRecalculationScheduler;
 import com.wdp.progress.progress.ProgressCalculator;
+import com.wdp.progress.progress.ProgressUpdateScheduler;
 import com.wdp.progress.integrations.VaultIntegration;
 import com.wdp.progress.integrations.GravesXIntegration;
 import org.bukkit.Bukkit;
@@ -44,6 +48,9 @@ public class WDPProgressPlugin extends JavaPlugin {
     private DatabaseManager databaseManager;
     private PlayerDataManager playerDataManager;
     private ProgressCalculator progressCalculator;
+    private ProgressUpdateScheduler updateScheduler;
+    private PeriodicRecalculationScheduler periodicScheduler;
+    private ProgressReweighter progressReweighter;
     
     // UI
     private com.wdp.progress.ui.ProgressMenu progressMenu;
@@ -89,6 +96,9 @@ public class WDPProgressPlugin extends JavaPlugin {
             // Initialize progress calculator
             getLogger().info("Initializing progress calculator...");
             progressCalculator = new ProgressCalculator(this);
+            updateScheduler = new ProgressUpdateScheduler(this);
+            periodicScheduler = new PeriodicRecalculationScheduler(this);
+            progressReweighter = new ProgressReweighter(this);
             
             // Initialize UI
             getLogger().info("Initializing progress menu...");
@@ -169,11 +179,11 @@ public class WDPProgressPlugin extends JavaPlugin {
             // Cancel all tasks
             Bukkit.getScheduler().cancelTasks(this);
             
-            // Save all online players' data
-            getLogger().info("Saving player data...");
-            Bukkit.getOnlinePlayers().forEach(player -> 
-                playerDataManager.savePlayerData(player.getUniqueId())
-            );
+            // Let in-flight calculations finish, then save and flush all player data
+            if (playerDataManager != null) {
+                getLogger().info("Saving player data...");
+                playerDataManager.shutdown();
+            }
             
             // Close database connections
             if (databaseManager != null) {
@@ -221,7 +231,10 @@ public class WDPProgressPlugin extends JavaPlugin {
      * Start background tasks for periodic updates
      */
     private void startBackgroundTasks() {
-        // Auto-save task - saves all online players' data periodically
+        // Coalesced event-driven updates
+        updateScheduler.start();
+        
+        // Auto-save task - saves online players whose data changed since the last save
         long autoSaveInterval = configManager.getAutoSaveInterval() * 20L; // Convert seconds to ticks
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
             Bukkit.getOnlinePlayers().forEach(player -> 
@@ -229,13 +242,15 @@ public class WDPProgressPlugin extends JavaPlugin {
             );
         }, autoSaveInterval, autoSaveInterval);
         
-        // Progress recalculation task - recalculates progress for online players
-        long recalcInterval = configManager.getRecalculationInterval() * 20L;
-        Bukkit.getScheduler().runTaskTimer(this, () -> {
-            Bukkit.getOnlinePlayers().forEach(player -> 
-                playerDataManager.updatePlayerProgress(player.getUniqueId(), true)
-            );
-        }, recalcInterval, recalcInterval);
+        // Progress recalculation - online players are spread across the interval
+        periodicScheduler.start();
+        
+        // History compaction - rolls old history points up into hourly/daily tiers
+        if (configManager.isHistoryCompactionEnabled()) {
+            long compactionInterval = configManager.getHistoryCompactionInterval() * 60L * 20L;
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, new HistoryCompactor(this),
+                20L * 60, compactionInterval);
+        }
     }
     
     /**
@@ -251,6 +266,12 @@ public class WDPProgressPlugin extends JavaPlugin {
             }
             
             progressCalculator.reloadWeights();
+            playerDataManager.invalidateCategoryScores();
+            playerDataManager.refreshEnderChestScores();
+            
+            // Online players are rescored live; stored players are re-weighted in bulk
+            Bukkit.getScheduler().runTaskAsynchronously(this, progressReweighter);
+            periodicScheduler.start();
             
             getLogger().info("Configuration reloaded successfully");
             return true;
@@ -283,6 +304,10 @@ public class WDPProgressPlugin extends JavaPlugin {
         return progressCalculator;
     }
     
+    public ProgressUpdateScheduler getUpdateScheduler() {
+        return updateScheduler;
+    }
+    
     public com.wdp.progress.ui.ProgressMenu getProgressMenu() {
         return progressMenu;
     }
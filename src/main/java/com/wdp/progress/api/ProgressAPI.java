@@ -3,6 +3,7 @@ package com.wdp.progress.api;
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.data.DatabaseManager;
 import com.wdp.progress.data.PlayerData;
+import com.wdp.progress.progress.ProgressCalculator;
 import org.bukkit.entity.Player;
 
 import java.util.List;
@@ -43,10 +44,39 @@ public class ProgressAPI {
      * @return Progress score from 1-100
      */
     public double getPlayerProgress(UUID uuid) {
-        PlayerData data = plugin.getPlayerDataManager().getPlayerData(uuid);
+        PlayerData data = plugin.getPlayerDataManager().findPlayerData(uuid);
         return data != null ? data.getCurrentProgress() : plugin.getConfigManager().getMinProgress();
     }
     
+    /**
+     * Get a player's category breakdown from their last calculation.
+     * Served from stored data, so it works for offline players and never recalculates.
+     * 
+     * @param uuid Player UUID
+     * @return The breakdown, or null if the player has never been scored
+     */
+    public ProgressCalculator.ProgressResult getProgressBreakdown(UUID uuid) {
+        PlayerData data = plugin.getPlayerDataManager().findPlayerData(uuid);
+        return data != null ? plugin.getProgressCalculator().getCachedResult(data) : null;
+    }
+    
+    /**
+     * Get the equipment score (0-100) a player's ender chest alone is worth.
+     * The ender chest is scored on join and whenever it is closed, and the score
+     * is stored, so this works for offline players too.
+     * 
+     * This is not a share of the equipment score: when the ender chest is included,
+     * its per-component scores are added to the inventory and armor ones, and each
+     * component is capped at 100 before the components are weighted.
+     * 
+     * @param uuid Player UUID
+     * @return The ender chest score, or 0 if the player has no stored data
+     */
+    public double getEnderChestScore(UUID uuid) {
+        PlayerData data = plugin.getPlayerDataManager().findPlayerData(uuid);
+        return data != null ? plugin.getProgressCalculator().scoreEquipmentComponents(data.getEnderChestScores()) : 0.0;
+    }
+    
     /**
      * Get a player's progress as a percentage (0.0 - 1.0)
      * 
@@ -140,7 +170,28 @@ public class ProgressAPI {
      * @return List of UUID-Progress pairs, sorted by progress descending
      */
     public List<Map.Entry<UUID, Double>> getTopPlayers(int limit) {
-        return plugin.getDatabaseManager().getTopPlayers(limit);
+        return plugin.getPlayerDataManager().getLeaderboard().getTop(limit);
+    }
+    
+    /**
+     * Get a player's leaderboard rank
+     * 
+     * @param uuid Player UUID
+     * @return 1-based rank, or -1 if the player has no stored progress
+     */
+    public int getRank(UUID uuid) {
+        return plugin.getPlayerDataManager().getLeaderboard().getRank(uuid);
+    }
+    
+    /**
+     * Get the players ranked around a player
+     * 
+     * @param uuid Player UUID
+     * @param radius How many places above and below to include
+     * @return List of UUID-Progress pairs (including the player), sorted by progress descending
+     */
+    public List<Map.Entry<UUID, Double>> getNeighbors(UUID uuid, int radius) {
+        return plugin.getPlayerDataManager().getLeaderboard().getNeighbors(uuid, radius);
     }
     
     /**
@@ -2,6 +2,7 @@ package com.wdp.progress.commands;
 
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.data.PlayerData;
+import com.wdp.progress.progress.ItemScoreCache;
 import com.wdp.progress.progress.ProgressCalculator;
 import com.wdp.progress.ui.AdvancementAdminMenu;
 import org.bukkit.Bukkit;
@@ -61,6 +62,9 @@ public class ProgressAdminCommand implements CommandExecutor, TabCompleter {
             case "debug":
                 return handleDebug(sender, args);
                 
+            case "stats":
+                return handleStats(sender);
+                
             case "advancements":
             case "adv":
                 return handleAdvancements(sender, args);
@@ -358,6 +362,32 @@ public class ProgressAdminCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    /**
+     * Handle stats subcommand
+     */
+    private boolean handleStats(CommandSender sender) {
+        if (!sender.hasPermission("wdp.progress.admin.stats")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to view plugin statistics.");
+            return true;
+        }
+        
+        ItemScoreCache itemCache = plugin.getProgressCalculator().getItemValuationEngine().getScoreCache();
+        
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.GOLD + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        sender.sendMessage(ChatColor.AQUA + "       WDP Progress Statistics");
+        sender.sendMessage(ChatColor.GOLD + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        sender.sendMessage("");
+        sender.sendMessage(ChatColor.YELLOW + "  Item Score Cache (since last reload):");
+        sender.sendMessage(ChatColor.GRAY + "    Entries: " + ChatColor.WHITE + itemCache.size() + "/" + itemCache.getCapacity());
+        sender.sendMessage(ChatColor.GRAY + "    Hits: " + ChatColor.WHITE + itemCache.getHits() +
+            ChatColor.GRAY + "  Misses: " + ChatColor.WHITE + itemCache.getMisses());
+        sender.sendMessage(ChatColor.GRAY + "    Hit Rate: " + ChatColor.WHITE + df.format(itemCache.getHitRate() * 100.0) + "%");
+        sender.sendMessage("");
+        
+        return true;
+    }
+    
     /**
      * Send help message
      */
@@ -370,6 +400,7 @@ public class ProgressAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/progressadmin set <player> <value>" + ChatColor.GRAY + " - Set progress value");
         sender.sendMessage(ChatColor.YELLOW + "/progressadmin reset <player>" + ChatColor.GRAY + " - Reset player data");
         sender.sendMessage(ChatColor.YELLOW + "/progressadmin debug <player>" + ChatColor.GRAY + " - View debug info");
+        sender.sendMessage(ChatColor.YELLOW + "/progressadmin stats" + ChatColor.GRAY + " - View cache statistics");
         sender.sendMessage(ChatColor.YELLOW + "/progressadmin advancements <player>" + ChatColor.GRAY + " - Manage advancements (OP only)");
         sender.sendMessage("");
         sender.sendMessage(ChatColor.GOLD + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
@@ -382,13 +413,13 @@ public class ProgressAdminCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             // Suggest subcommands
-            List<String> subCommands = Arrays.asList("reload", "recalculate", "set", "reset", "debug", "advancements");
+            List<String> subCommands = Arrays.asList("reload", "recalculate", "set", "reset", "debug", "stats", "advancements");
             for (String sub : subCommands) {
                 if (sub.toLowerCase().startsWith(args[0].toLowerCase())) {
                     completions.add(sub);
                 }
             }
-        } else if (args.length == 2 && !args[0].equalsIgnoreCase("reload")) {
+        } else if (args.length == 2 && !args[0].equalsIgnoreCase("reload") && !args[0].equalsIgnoreCase("stats")) {
             // Suggest player names
             for (Player player : Bukkit.getOnlinePlayers()) {
                 if (player.getName().toLowerCase().startsWith(args[1].toLowerCase())) {
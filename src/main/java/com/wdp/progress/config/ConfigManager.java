@@ -207,10 +207,30 @@ public class ConfigManager {
         return config.getString("database.type", "SQLITE");
     }
     
+    public String getUuidStorage() {
+        return config.getString("database.uuid-storage", "TEXT");
+    }
+    
     public String getSQLiteFile() {
         return config.getString("database.sqlite.file", "progress_data.db");
     }
     
+    public boolean isSQLiteWalEnabled() {
+        return config.getBoolean("database.sqlite.wal", true);
+    }
+    
+    public int getSQLiteReaderPoolSize() {
+        return Math.max(1, config.getInt("database.sqlite.reader-pool-size", 4));
+    }
+    
+    public int getSQLiteCacheSizeKb() {
+        return Math.max(0, config.getInt("database.sqlite.cache-size-kb", 16384));
+    }
+    
+    public int getSQLiteMmapSizeMb() {
+        return Math.max(0, config.getInt("database.sqlite.mmap-size-mb", 128));
+    }
+    
     public String getMySQLHost() {
         return config.getString("database.mysql.host", "localhost");
     }
@@ -231,6 +251,52 @@ public class ConfigManager {
         return config.getString("database.mysql.password", "password");
     }
     
+    public boolean isMySQLReplicaEnabled() {
+        return config.getBoolean("database.mysql.replica.enabled", false);
+    }
+    
+    public String getMySQLReplicaHost() {
+        return config.getString("database.mysql.replica.host", getMySQLHost());
+    }
+    
+    public int getMySQLReplicaPort() {
+        return config.getInt("database.mysql.replica.port", getMySQLPort());
+    }
+    
+    public String getMySQLReplicaUsername() {
+        return config.getString("database.mysql.replica.username", getMySQLUsername());
+    }
+    
+    public String getMySQLReplicaPassword() {
+        return config.getString("database.mysql.replica.password", getMySQLPassword());
+    }
+    
+    // Connection pool getters
+    
+    public int getPoolMaximumSize() {
+        return Math.max(1, config.getInt("database.pool.maximum-pool-size", 10));
+    }
+    
+    public int getPoolMinimumIdle() {
+        return Math.max(0, config.getInt("database.pool.minimum-idle", 2));
+    }
+    
+    public long getPoolConnectionTimeout() {
+        return config.getLong("database.pool.connection-timeout", 30000L);
+    }
+    
+    public long getPoolIdleTimeout() {
+        return config.getLong("database.pool.idle-timeout", 600000L);
+    }
+    
+    public long getPoolMaxLifetime() {
+        return config.getLong("database.pool.max-lifetime", 1800000L);
+    }
+    
+    public int getPoolReaderSize() {
+        return Math.max(0, config.getInt("database.pool.reader-pool-size", 4));
+    }
+    
     // General getters
     
     public int getAutoSaveInterval() {
@@ -241,6 +307,10 @@ public class ConfigManager {
         return config.getInt("general.recalculation-interval", 60);
     }
     
+    public int getFullRecalculationInterval() {
+        return config.getInt("general.full-recalculation-interval", 600);
+    }
+    
     public boolean isDebugEnabled() {
         return config.getBoolean("general.debug", false);
     }
@@ -507,10 +577,34 @@ public class ConfigManager {
         return config.getInt("performance.cache-expiration", 600);
     }
     
+    public int getOfflineCacheSize() {
+        return Math.max(2, config.getInt("performance.offline-cache-size", 500));
+    }
+    
+    public int getItemScoreCacheSize() {
+        return Math.max(0, config.getInt("performance.item-score-cache-size", 4096));
+    }
+    
     public boolean isAsyncCalculationEnabled() {
         return config.getBoolean("performance.async-calculation", true);
     }
     
+    public int getCalculationThreads() {
+        return Math.max(1, config.getInt("performance.calculation-threads", 2));
+    }
+    
+    public double getRecalculationTickBudget() {
+        return Math.max(0.1, config.getDouble("performance.recalculation-tick-budget-ms", 2.0));
+    }
+    
+    public long getUpdateDebounce() {
+        return Math.max(0, config.getLong("performance.update-debounce-ms", 1000));
+    }
+    
+    public long getUpdateMaxLatency() {
+        return Math.max(0, config.getLong("performance.update-max-latency-ms", 5000));
+    }
+    
     public boolean isBatchSavesEnabled() {
         return config.getBoolean("performance.batch-saves", true);
     }
@@ -519,6 +613,40 @@ public class ConfigManager {
         return config.getInt("performance.batch-size", 50);
     }
     
+    public int getBatchFlushInterval() {
+        return Math.max(1, config.getInt("performance.batch-flush-interval", 5));
+    }
+    
+    public int getReweightBatchSize() {
+        return Math.max(1, config.getInt("performance.reweight-batch-size", 1000));
+    }
+    
+    // History getters
+    
+    public boolean isHistoryCompactionEnabled() {
+        return config.getBoolean("history.compaction.enabled", true);
+    }
+    
+    public int getHistoryCompactionInterval() {
+        return Math.max(1, config.getInt("history.compaction.interval", 60));
+    }
+    
+    public int getHistoryCompactionChunkSize() {
+        return Math.max(1, config.getInt("history.compaction.chunk-size", 500));
+    }
+    
+    public int getHistoryRawRetentionDays() {
+        return Math.max(0, config.getInt("history.raw-retention-days", 7));
+    }
+    
+    public int getHistoryHourlyRetentionDays() {
+        return Math.max(getHistoryRawRetentionDays(), config.getInt("history.hourly-retention-days", 90));
+    }
+    
+    public int getHistoryDailyRetentionDays() {
+        return config.getInt("history.daily-retention-days", 0);
+    }
+    
     // API getters
     
     public boolean allowExternalModifications() {
@@ -0,0 +1,177 @@
+package com.wdp.progress.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stable numeric IDs for achievement keys, so a player's completed achievements
+ * can be stored as a compact bitset instead of a JSON array of strings.
+ *
+ * IDs are assigned by the database, never in memory: a new key is inserted with
+ * the next free ID in its own committed statement and its ID is then read back
+ * by key, so servers sharing one database always agree on them. Only IDs read
+ * back from the database are ever used to encode, and IDs are never reused.
+ */
+public class AchievementRegistry {
+
+    public static final String TABLE = "wdp_progress_achievement_ids";
+
+    // Another server can take the next free ID between our MAX(id) and our insert
+    private static final int MAX_ASSIGN_ATTEMPTS = 5;
+
+    private final boolean mysql;
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final List<String> keysById = new ArrayList<>();
+
+    public AchievementRegistry(boolean mysql) {
+        this.mysql = mysql;
+    }
+
+    /**
+     * Load every assigned ID
+     */
+    public void load(Connection conn) throws SQLException {
+        Map<String, Integer> loaded = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, achievement_key FROM " + TABLE)) {
+            while (rs.next()) {
+                loaded.put(rs.getString("achievement_key"), rs.getInt("id"));
+            }
+        }
+
+        synchronized (this) {
+            idsByKey.clear();
+            keysById.clear();
+            for (Map.Entry<String, Integer> entry : loaded.entrySet()) {
+                record(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Make sure every key has an ID confirmed by the database.
+     * Must not be called inside a transaction - each new ID is committed on its
+     * own so other servers see it before any row that uses it.
+     */
+    public void ensureRegistered(Connection conn, Collection<String> keys) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String key : keys) {
+                if (!idsByKey.containsKey(key)) {
+                    missing.add(key);
+                }
+            }
+        }
+
+        for (String key : missing) {
+            assign(conn, key);
+        }
+    }
+
+    /**
+     * Encode a set of achievement keys as a bitset
+     *
+     * @throws IllegalStateException if a key has no confirmed ID (see {@link #ensureRegistered})
+     */
+    public synchronized byte[] encode(Set<String> achievements) {
+        BitSet bits = new BitSet();
+        for (String key : achievements) {
+            Integer id = idsByKey.get(key);
+            if (id == null) {
+                throw new IllegalStateException("Achievement " + key + " has no confirmed ID");
+            }
+            bits.set(id);
+        }
+        return bits.toByteArray();
+    }
+
+    /**
+     * Decode a stored bitset. IDs assigned by another server since the last load
+     * are picked up by reloading the registry.
+     *
+     * @throws SQLException if the bitset holds an ID the database doesn't know
+     */
+    public Set<String> decode(Connection conn, byte[] stored) throws SQLException {
+        BitSet bits = BitSet.valueOf(stored);
+        Set<String> achievements = decodeKnown(bits);
+        if (achievements == null) {
+            load(conn);
+            achievements = decodeKnown(bits);
+            if (achievements == null) {
+                throw new SQLException("Stored achievements reference an ID missing from " + TABLE);
+            }
+        }
+        return achievements;
+    }
+
+    /**
+     * @return the decoded keys, or null if any ID is unknown
+     */
+    private synchronized Set<String> decodeKnown(BitSet bits) {
+        Set<String> achievements = new HashSet<>();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            if (id >= keysById.size() || keysById.get(id) == null) {
+                return null;
+            }
+            achievements.add(keysById.get(id));
+        }
+        return achievements;
+    }
+
+    private void assign(Connection conn, String key) throws SQLException {
+        String insert = (mysql ? "INSERT IGNORE INTO " : "INSERT OR IGNORE INTO ") + TABLE +
+            " (id, achievement_key) SELECT COALESCE(MAX(id) + 1, 0), ? FROM " + TABLE;
+
+        for (int attempt = 0; attempt < MAX_ASSIGN_ATTEMPTS; attempt++) {
+            // Another server may already have registered this key
+            if (lookup(conn, key) != null) {
+                load(conn);
+                return;
+            }
+
+            // Ignored if the ID was just taken (or the key just registered) elsewhere
+            try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                stmt.setString(1, key);
+                stmt.executeUpdate();
+            }
+
+            Integer id = lookup(conn, key);
+            if (id != null) {
+                synchronized (this) {
+                    record(key, id);
+                }
+                return;
+            }
+        }
+        throw new SQLException("Could not assign an ID to achievement " + key);
+    }
+
+    private Integer lookup(Connection conn, String key) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id FROM " + TABLE + " WHERE achievement_key = ?")) {
+            stmt.setString(1, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    private void record(String key, int id) {
+        while (keysById.size() <= id) {
+            keysById.add(null);
+        }
+        keysById.set(id, key);
+        idsByKey.put(key, id);
+    }
+}
@@ -4,6 +4,8 @@ import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.config.ConfigManager;
+import com.wdp.progress.progress.ItemValuationEngine;
+import com.wdp.progress.progress.ProgressCategory;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -11,11 +13,21 @@ import java.io.File;
 import java.lang.reflect.Type;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
  * Manages database connections and operations.
  * Supports both SQLite and MySQL with connection pooling.
+ *
+ * Every INSERT/UPDATE/DELETE runs on a single writer thread (see
+ * {@link #submitWrite}), so writes never contend with each other for locks and
+ * callers get a future back instead of blocking on the database.
  */
 public class DatabaseManager {
     
@@ -23,8 +35,23 @@ public class DatabaseManager {
     private final ConfigManager config;
     private final Gson gson;
     
+    // Score breakdown columns, in ProgressCategory ordinal order
+    private static final String SCORE_COLUMNS = "score_advancements, score_experience, score_equipment, " +
+        "score_economy, score_statistics, score_achievements";
+    
+    // Ender chest score columns, in equipment component order
+    private static final String ENDER_CHEST_COLUMNS = "ec_armor, ec_tools, ec_weapons, ec_special";
+    
     private HikariDataSource dataSource;
+    // Separate pool for reads (null when reads share the main pool)
+    private HikariDataSource readDataSource;
+    // MySQL replica for leaderboard and history reads (null when not configured)
+    private HikariDataSource replicaDataSource;
     private String databaseType;
+    private UuidCodec uuidCodec = UuidCodec.TEXT;
+    private AchievementRegistry achievementRegistry;
+    // Runs every write, one at a time (null until connected)
+    private ExecutorService writeExecutor;
     
     public DatabaseManager(WDPProgressPlugin plugin) {
         this.plugin = plugin;
@@ -52,9 +79,27 @@ public class DatabaseManager {
             
             dataSource = new HikariDataSource(hikariConfig);
             
-            // Initialize tables
+            // Initialize tables (nothing else can write yet, so this runs on the calling thread)
             initializeTables();
             
+            writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "WDPProgress-DB-Writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            
+            // Readers are opened once the schema (and WAL mode) is in place
+            if (databaseType.equals("SQLITE") && config.isSQLiteWalEnabled()) {
+                readDataSource = createSQLiteReaderPool();
+            } else if (databaseType.equals("MYSQL") && config.getPoolReaderSize() > 0) {
+                readDataSource = createMySQLReaderPool("WDPProgress-MySQL-Reader", config.getMySQLHost(),
+                    config.getMySQLPort(), config.getMySQLUsername(), config.getMySQLPassword());
+                if (config.isMySQLReplicaEnabled()) {
+                    replicaDataSource = createMySQLReaderPool("WDPProgress-MySQL-Replica", config.getMySQLReplicaHost(),
+                        config.getMySQLReplicaPort(), config.getMySQLReplicaUsername(), config.getMySQLReplicaPassword());
+                }
+            }
+            
             plugin.getLogger().info("Connected to " + databaseType + " database successfully");
             return true;
             
@@ -76,30 +121,81 @@ public class DatabaseManager {
         String dbFile = this.config.getSQLiteFile();
         File databaseFile = new File(dataFolder, dbFile);
         
+        config.setPoolName("WDPProgress-SQLite-Writer");
         config.setJdbcUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
         config.setDriverClassName("org.sqlite.JDBC");
-        config.setMaximumPoolSize(1); // SQLite doesn't support multiple connections well
+        config.setMaximumPoolSize(1); // SQLite allows one writer at a time - this connection makes every mutation
         config.setConnectionTestQuery("SELECT 1");
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        
+        if (this.config.isSQLiteWalEnabled()) {
+            // WAL lets readers run alongside the writer; NORMAL sync is durable in WAL mode except on power loss
+            config.addDataSourceProperty("journal_mode", "WAL");
+            config.addDataSourceProperty("synchronous", "NORMAL");
+            addSQLiteTuning(config);
+        }
+    }
+    
+    /**
+     * Read-only connections for concurrent reads alongside the writer (WAL mode only)
+     */
+    private HikariDataSource createSQLiteReaderPool() {
+        File databaseFile = new File(plugin.getDataFolder(), this.config.getSQLiteFile());
+        
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("WDPProgress-SQLite-Reader");
+        config.setJdbcUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setMaximumPoolSize(this.config.getSQLiteReaderPoolSize());
+        config.setMinimumIdle(1);
+        config.setConnectionTestQuery("SELECT 1");
+        config.addDataSourceProperty("open_mode", "1"); // SQLITE_OPEN_READONLY
+        addSQLiteTuning(config);
+        return new HikariDataSource(config);
+    }
+    
+    private void addSQLiteTuning(HikariConfig config) {
+        config.addDataSourceProperty("cache_size", String.valueOf(-this.config.getSQLiteCacheSizeKb())); // negative = KiB
+        config.addDataSourceProperty("mmap_size", String.valueOf(this.config.getSQLiteMmapSizeMb() * 1024L * 1024L));
+        config.addDataSourceProperty("temp_store", "MEMORY");
+        config.addDataSourceProperty("busy_timeout", "5000");
     }
     
     /**
-     * Setup MySQL connection
+     * Setup MySQL connection (the writer pool, sized by database.pool.*)
      */
     private void setupMySQL(HikariConfig config) {
-        String host = this.config.getMySQLHost();
-        int port = this.config.getMySQLPort();
+        configureMySQL(config, "WDPProgress-MySQL-Writer", this.config.getMySQLHost(), this.config.getMySQLPort(),
+            this.config.getMySQLUsername(), this.config.getMySQLPassword(), this.config.getPoolMaximumSize());
+        config.setMinimumIdle(Math.min(this.config.getPoolMinimumIdle(), this.config.getPoolMaximumSize()));
+    }
+    
+    /**
+     * A read-only MySQL pool, on the primary or on a replica
+     */
+    private HikariDataSource createMySQLReaderPool(String poolName, String host, int port, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        configureMySQL(config, poolName, host, port, username, password, this.config.getPoolReaderSize());
+        config.setMinimumIdle(1);
+        config.setReadOnly(true);
+        return new HikariDataSource(config);
+    }
+    
+    private void configureMySQL(HikariConfig config, String poolName, String host, int port,
+                                String username, String password, int poolSize) {
         String database = this.config.getMySQLDatabase();
-        String username = this.config.getMySQLUsername();
-        String password = this.config.getMySQLPassword();
         
+        config.setPoolName(poolName);
         config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database);
         config.setUsername(username);
         config.setPassword(password);
         config.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        config.setMaximumPoolSize(10);
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(this.config.getPoolConnectionTimeout());
+        config.setIdleTimeout(this.config.getPoolIdleTimeout());
+        config.setMaxLifetime(this.config.getPoolMaxLifetime());
         config.setConnectionTestQuery("SELECT 1");
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
@@ -118,10 +214,14 @@ public class DatabaseManager {
      */
     private void initializeTables() throws SQLException {
         try (Connection conn = getConnection()) {
+            // Key format is fixed when the tables are first created
+            uuidCodec = resolveUuidCodec(conn);
+            String uuidType = uuidCodec.getColumnType(isMySQL());
+            
             // Player progress table
             String createPlayersTable = databaseType.equals("SQLITE") ?
                 "CREATE TABLE IF NOT EXISTS wdp_progress (" +
-                "uuid TEXT PRIMARY KEY," +
+                "uuid " + uuidType + " PRIMARY KEY," +
                 "current_progress REAL NOT NULL," +
                 "last_progress REAL NOT NULL," +
                 "last_update INTEGER NOT NULL," +
@@ -132,7 +232,7 @@ public class DatabaseManager {
                 "last_equipment_value REAL NOT NULL" +
                 ")" :
                 "CREATE TABLE IF NOT EXISTS wdp_progress (" +
-                "uuid VARCHAR(36) PRIMARY KEY," +
+                "uuid " + uuidType + " PRIMARY KEY," +
                 "current_progress DOUBLE NOT NULL," +
                 "last_progress DOUBLE NOT NULL," +
                 "last_update BIGINT NOT NULL," +
@@ -151,13 +251,13 @@ public class DatabaseManager {
             String createHistoryTable = databaseType.equals("SQLITE") ?
                 "CREATE TABLE IF NOT EXISTS wdp_progress_history (" +
                 "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "uuid TEXT NOT NULL," +
+                "uuid " + uuidType + " NOT NULL," +
                 "progress REAL NOT NULL," +
                 "timestamp INTEGER NOT NULL" +
                 ")" :
                 "CREATE TABLE IF NOT EXISTS wdp_progress_history (" +
                 "id INT PRIMARY KEY AUTO_INCREMENT," +
-                "uuid VARCHAR(36) NOT NULL," +
+                "uuid " + uuidType + " NOT NULL," +
                 "progress DOUBLE NOT NULL," +
                 "timestamp BIGINT NOT NULL," +
                 "INDEX idx_uuid (uuid)," +
@@ -168,24 +268,219 @@ public class DatabaseManager {
                 stmt.execute(createHistoryTable);
             }
             
+            // Rolled-up history tiers (filled by HistoryCompactor)
+            for (String table : new String[] { HistoryCompactor.HOURLY_TABLE, HistoryCompactor.DAILY_TABLE }) {
+                String createRollupTable = databaseType.equals("SQLITE") ?
+                    "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "uuid " + uuidType + " NOT NULL," +
+                    "bucket_start INTEGER NOT NULL," +
+                    "min_progress REAL NOT NULL," +
+                    "avg_progress REAL NOT NULL," +
+                    "max_progress REAL NOT NULL," +
+                    "samples INTEGER NOT NULL," +
+                    "PRIMARY KEY (uuid, bucket_start)" +
+                    ")" :
+                    "CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "uuid " + uuidType + " NOT NULL," +
+                    "bucket_start BIGINT NOT NULL," +
+                    "min_progress DOUBLE NOT NULL," +
+                    "avg_progress DOUBLE NOT NULL," +
+                    "max_progress DOUBLE NOT NULL," +
+                    "samples INT NOT NULL," +
+                    "PRIMARY KEY (uuid, bucket_start)" +
+                    ")";
+                
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(createRollupTable);
+                }
+            }
+            
+            // Running statistic counters (lets rejoining players skip the full statistic scan)
+            String createCountersTable = databaseType.equals("SQLITE") ?
+                "CREATE TABLE IF NOT EXISTS wdp_progress_counters (" +
+                "uuid " + uuidType + " PRIMARY KEY," +
+                "mob_kills INTEGER NOT NULL," +
+                "mob_bonus REAL NOT NULL," +
+                "blocks_mined INTEGER NOT NULL," +
+                "block_bonus REAL NOT NULL," +
+                "bonus_hash INTEGER NOT NULL," +
+                "stamp_play_time INTEGER NOT NULL," +
+                "stamp_mob_kills INTEGER NOT NULL" +
+                ")" :
+                "CREATE TABLE IF NOT EXISTS wdp_progress_counters (" +
+                "uuid " + uuidType + " PRIMARY KEY," +
+                "mob_kills BIGINT NOT NULL," +
+                "mob_bonus DOUBLE NOT NULL," +
+                "blocks_mined BIGINT NOT NULL," +
+                "block_bonus DOUBLE NOT NULL," +
+                "bonus_hash INT NOT NULL," +
+                "stamp_play_time INT NOT NULL," +
+                "stamp_mob_kills INT NOT NULL" +
+                ")";
+            
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(createCountersTable);
+            }
+            
+            // Indexes and later columns/tables are versioned migrations on top of the baseline tables
+            new SchemaMigrator(plugin, isMySQL(), uuidCodec).migrate(conn);
+            
+            // Achievement IDs - configured achievements get theirs up front
+            achievementRegistry = new AchievementRegistry(isMySQL());
+            achievementRegistry.load(conn);
+            achievementRegistry.ensureRegistered(conn, config.getCustomAchievements().keySet());
+            
             plugin.getLogger().info("Database tables initialized successfully");
         }
     }
     
     /**
-     * Get a database connection from the pool
+     * Use the UUID format of existing tables, or the configured one for a new database
+     */
+    private UuidCodec resolveUuidCodec(Connection conn) throws SQLException {
+        UuidCodec configured = config.getUuidStorage().equalsIgnoreCase("BINARY") ? UuidCodec.BINARY : UuidCodec.TEXT;
+        
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, "wdp_progress", "uuid")) {
+            if (!rs.next()) {
+                return configured;
+            }
+            
+            UuidCodec existing = UuidCodec.fromColumnType(rs.getString("TYPE_NAME"));
+            if (existing != configured) {
+                plugin.getLogger().warning("database.uuid-storage is " + configured + " but the existing tables use " +
+                    existing + " - keeping " + existing + " (the format can only be chosen for a new database)");
+            }
+            return existing;
+        }
+    }
+    
+    /**
+     * A write to run on the writer thread, given a connection from the main pool
      */
-    public Connection getConnection() throws SQLException {
+    @FunctionalInterface
+    public interface WriteTask<T> {
+        T run(Connection conn) throws SQLException;
+    }
+    
+    /**
+     * Queue a write on the writer thread
+     *
+     * @return A future completed with the task's result, or exceptionally with its SQLException
+     */
+    public <T> CompletableFuture<T> submitWrite(WriteTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (writeExecutor == null) {
+            result.completeExceptionally(new SQLException("Database is not connected"));
+            return result;
+        }
+        
+        try {
+            writeExecutor.execute(() -> {
+                try (Connection conn = getConnection()) {
+                    result.complete(task.run(conn));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new SQLException("Database writer has shut down", e));
+        }
+        return result;
+    }
+    
+    /**
+     * Run a write on the writer thread and wait for it. For background tasks
+     * that need a write's outcome before carrying on - never call it from a
+     * {@link WriteTask}, which would wait on itself.
+     */
+    public <T> T write(WriteTask<T> task) throws SQLException {
+        try {
+            return submitWrite(task).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+    
+    /**
+     * Get a connection from the main pool. Only the writer thread (and table
+     * setup, before it starts) uses these - everything else goes through
+     * {@link #submitWrite} or the read connections.
+     */
+    private Connection getConnection() throws SQLException {
         if (dataSource == null || dataSource.isClosed()) {
             throw new SQLException("Database connection pool is not available");
         }
         return dataSource.getConnection();
     }
     
+    /**
+     * Get a connection for read-only queries that must see the latest writes (e.g.
+     * player loads). Comes from the reader pool when there is one, so reads don't
+     * wait behind writes; otherwise from the main pool.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (readDataSource == null) {
+            return getConnection();
+        }
+        if (readDataSource.isClosed()) {
+            throw new SQLException("Database read pool is not available");
+        }
+        return readDataSource.getConnection();
+    }
+    
+    /**
+     * Get a connection for leaderboard and history reads, which may lag slightly
+     * behind writes. Uses the MySQL replica when one is configured; otherwise
+     * the same as {@link #getReadConnection()}.
+     */
+    public Connection getReportingConnection() throws SQLException {
+        if (replicaDataSource == null || replicaDataSource.isClosed()) {
+            return getReadConnection();
+        }
+        return replicaDataSource.getConnection();
+    }
+    
+    /**
+     * How UUID key columns are stored (fixed once the tables exist)
+     */
+    public UuidCodec getUuidCodec() {
+        return uuidCodec;
+    }
+    
+    public boolean isMySQL() {
+        return databaseType.equals("MYSQL");
+    }
+    
     /**
      * Disconnect from the database
      */
     public void disconnect() {
+        // Let queued writes finish before the pools close under them
+        if (writeExecutor != null) {
+            writeExecutor.shutdown();
+            try {
+                if (!writeExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    plugin.getLogger().warning("Timed out waiting for queued database writes");
+                    writeExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                writeExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (replicaDataSource != null && !replicaDataSource.isClosed()) {
+            replicaDataSource.close();
+        }
+        if (readDataSource != null && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             plugin.getLogger().info("Database connection closed");
@@ -194,14 +489,19 @@ public class DatabaseManager {
     
     /**
      * Load player data from database
+     * 
+     * @return the stored data, or null if the player has never been saved
      */
-    public PlayerData loadPlayerData(UUID uuid) {
-        String sql = "SELECT * FROM wdp_progress WHERE uuid = ?";
+    public PlayerData findPlayerData(UUID uuid) throws SQLException {
+        String sql = "SELECT p.*, c.mob_kills AS c_mob_kills, c.mob_bonus AS c_mob_bonus, " +
+                    "c.blocks_mined AS c_blocks_mined, c.block_bonus AS c_block_bonus, c.bonus_hash AS c_bonus_hash, " +
+                    "c.stamp_play_time AS c_stamp_play_time, c.stamp_mob_kills AS c_stamp_mob_kills " +
+                    "FROM wdp_progress p LEFT JOIN wdp_progress_counters c ON c.uuid = p.uuid WHERE p.uuid = ?";
         
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, uuid.toString());
+            uuidCodec.bind(stmt, 1, uuid);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -211,114 +511,366 @@ public class DatabaseManager {
                     data.setLastSeen(rs.getLong("last_seen"));
                     data.setLastDeathTime(rs.getLong("last_death_time"));
                     data.setLastEquipmentValue(rs.getDouble("last_equipment_value"));
+                    data.setTotalDeaths(rs.getInt("total_deaths"));
+                    data.setCurrentDeathPenalty(rs.getDouble("death_penalty"));
+                    
+                    // Last calculated score breakdown
+                    double[] scores = new double[ProgressCategory.values().length];
+                    for (ProgressCategory category : ProgressCategory.values()) {
+                        scores[category.ordinal()] = rs.getDouble(getScoreColumn(category));
+                    }
+                    data.restoreCategoryScores(scores);
                     
-                    // Load achievements
-                    String achievementsJson = rs.getString("completed_achievements");
-                    if (achievementsJson != null && !achievementsJson.isEmpty()) {
-                        Type setType = new TypeToken<HashSet<String>>(){}.getType();
-                        Set<String> achievements = gson.fromJson(achievementsJson, setType);
-                        if (achievements != null) {
-                            for (String achievement : achievements) {
-                                data.addAchievement(achievement);
-                            }
+                    double[] enderChestScores = new double[ItemValuationEngine.getComponentCount()];
+                    for (int component = 0; component < enderChestScores.length; component++) {
+                        enderChestScores[component] = rs.getDouble("ec_" + ItemValuationEngine.getComponentName(component));
+                    }
+                    data.restoreEnderChestScores(enderChestScores);
+                    
+                    // Load achievements (rows not saved since the bitset column was added still hold JSON)
+                    byte[] achievementBits = rs.getBytes("achievement_bits");
+                    if (achievementBits != null) {
+                        for (String achievement : achievementRegistry.decode(conn, achievementBits)) {
+                            data.addAchievement(achievement);
                         }
+                    } else {
+                        loadLegacyAchievements(data, rs.getString("completed_achievements"));
+                    }
+                    
+                    // Load statistic counters (if any were stored)
+                    long mobKills = rs.getLong("c_mob_kills");
+                    if (!rs.wasNull()) {
+                        data.restoreStatisticCounters(mobKills, rs.getDouble("c_mob_bonus"),
+                            rs.getLong("c_blocks_mined"), rs.getDouble("c_block_bonus"), rs.getInt("c_bonus_hash"),
+                            rs.getInt("c_stamp_play_time"), rs.getInt("c_stamp_mob_kills"));
                     }
                     
+                    data.restoreGraves(loadGraves(conn, uuid));
+                    
+                    // Freshly loaded data matches the database
+                    data.markSaved(data.getModVersion());
+                    data.markGravesSaved(data.getGraveVersion());
                     return data;
                 }
             }
             
-            // Player not found, return new data
-            return new PlayerData(uuid);
-            
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, e);
-            return new PlayerData(uuid);
+            // Player not found
+            return null;
+        }
+    }
+    
+    private List<PlayerData.GraveData> loadGraves(Connection conn, UUID uuid) throws SQLException {
+        List<PlayerData.GraveData> graves = new ArrayList<>();
+        String sql = "SELECT grave_id, total_value, recovered_value, creation_time FROM wdp_progress_graves WHERE uuid = ?";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            uuidCodec.bind(stmt, 1, uuid);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    graves.add(new PlayerData.GraveData(rs.getString("grave_id"), rs.getDouble("total_value"),
+                        rs.getDouble("recovered_value"), rs.getLong("creation_time")));
+                }
+            }
+        }
+        return graves;
+    }
+    
+    private void loadLegacyAchievements(PlayerData data, String achievementsJson) {
+        if (achievementsJson == null || achievementsJson.isEmpty()) {
+            return;
+        }
+        Type setType = new TypeToken<HashSet<String>>(){}.getType();
+        Set<String> achievements = gson.fromJson(achievementsJson, setType);
+        if (achievements != null) {
+            for (String achievement : achievements) {
+                data.addAchievement(achievement);
+            }
         }
     }
     
     /**
      * Save player data to database
+     *
+     * @return A future completed with whether the save succeeded
      */
-    public boolean savePlayerData(PlayerData data) {
-        String sql = "INSERT OR REPLACE INTO wdp_progress " +
-                    "(uuid, current_progress, last_progress, last_update, last_death_time, " +
-                    "completed_achievements, first_join, last_seen, last_equipment_value) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    public CompletableFuture<Boolean> savePlayerData(PlayerData data) {
+        return savePlayerDataBatch(Collections.singletonList(data));
+    }
+    
+    /**
+     * Save several players' data with JDBC batching, in a single transaction
+     *
+     * @return A future completed with whether the save succeeded
+     */
+    public CompletableFuture<Boolean> savePlayerDataBatch(Collection<PlayerData> batch) {
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
         
+        return submitWrite(conn -> writePlayerDataBatch(conn, batch)).exceptionally(e -> {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + batch.size() + " player(s)",
+                e instanceof CompletionException ? e.getCause() : e);
+            return false;
+        });
+    }
+    
+    private boolean writePlayerDataBatch(Connection conn, Collection<PlayerData> batch) throws SQLException {
+        // Versions are read before anything is encoded or bound so changes made mid-write stay dirty
+        long[] versions = new long[batch.size()];
+        int[] graveVersions = new int[batch.size()];
+        int index = 0;
+        for (PlayerData data : batch) {
+            graveVersions[index] = data.getGraveVersion();
+            versions[index++] = data.getModVersion();
+        }
+        byte[][] achievementBits = encodeAchievements(conn, batch);
+        
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement progressStmt = conn.prepareStatement(getSaveProgressSql());
+             PreparedStatement counterStmt = conn.prepareStatement(getSaveCountersSql())) {
+            
+            index = 0;
+            boolean hasCounters = false;
+            List<PlayerData> gravesChanged = new ArrayList<>();
+            for (PlayerData data : batch) {
+                bindPlayerData(progressStmt, data, achievementBits[index++]);
+                progressStmt.addBatch();
+                
+                if (data.hasStoredCounters()) {
+                    bindStatisticCounters(counterStmt, data);
+                    counterStmt.addBatch();
+                    hasCounters = true;
+                }
+                
+                if (data.areGravesDirty()) {
+                    gravesChanged.add(data);
+                }
+            }
+            
+            progressStmt.executeBatch();
+            if (hasCounters) {
+                counterStmt.executeBatch();
+            }
+            if (!gravesChanged.isEmpty()) {
+                saveGraves(conn, gravesChanged);
+            }
+            conn.commit();
+            
+            index = 0;
+            for (PlayerData data : batch) {
+                data.markGravesSaved(graveVersions[index]);
+                data.markSaved(versions[index++]);
+            }
+            return true;
+            
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
+    private String getSaveProgressSql() {
         if (databaseType.equals("MYSQL")) {
-            sql = "INSERT INTO wdp_progress " +
+            return "INSERT INTO wdp_progress " +
                   "(uuid, current_progress, last_progress, last_update, last_death_time, " +
-                  "completed_achievements, first_join, last_seen, last_equipment_value) " +
-                  "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                  "completed_achievements, achievement_bits, first_join, last_seen, last_equipment_value, " +
+                  "total_deaths, death_penalty, " + SCORE_COLUMNS + ", " + ENDER_CHEST_COLUMNS + ") " +
+                  "VALUES (?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
                   "ON DUPLICATE KEY UPDATE " +
                   "current_progress = VALUES(current_progress), " +
                   "last_progress = VALUES(last_progress), " +
                   "last_update = VALUES(last_update), " +
                   "last_death_time = VALUES(last_death_time), " +
-                  "completed_achievements = VALUES(completed_achievements), " +
+                  "completed_achievements = NULL, " +
+                  "achievement_bits = VALUES(achievement_bits), " +
                   "last_seen = VALUES(last_seen), " +
-                  "last_equipment_value = VALUES(last_equipment_value)";
+                  "last_equipment_value = VALUES(last_equipment_value), " +
+                  "total_deaths = VALUES(total_deaths), " +
+                  "death_penalty = VALUES(death_penalty), " +
+                  "score_advancements = VALUES(score_advancements), " +
+                  "score_experience = VALUES(score_experience), " +
+                  "score_equipment = VALUES(score_equipment), " +
+                  "score_economy = VALUES(score_economy), " +
+                  "score_statistics = VALUES(score_statistics), " +
+                  "score_achievements = VALUES(score_achievements), " +
+                  "ec_armor = VALUES(ec_armor), " +
+                  "ec_tools = VALUES(ec_tools), " +
+                  "ec_weapons = VALUES(ec_weapons), " +
+                  "ec_special = VALUES(ec_special)";
+        }
+        return "INSERT OR REPLACE INTO wdp_progress " +
+                    "(uuid, current_progress, last_progress, last_update, last_death_time, " +
+                    "completed_achievements, achievement_bits, first_join, last_seen, last_equipment_value, " +
+                    "total_deaths, death_penalty, " + SCORE_COLUMNS + ", " + ENDER_CHEST_COLUMNS + ") " +
+                    "VALUES (?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+    
+    /**
+     * Encode each player's achievements, first committing IDs for any achievement
+     * seen for the first time. Runs outside the save transaction, so every ID is
+     * committed before a row uses it.
+     * 
+     * @return the encoded bitsets, in batch order
+     */
+    private byte[][] encodeAchievements(Connection conn, Collection<PlayerData> batch) throws SQLException {
+        Set<String> achievements = new HashSet<>();
+        for (PlayerData data : batch) {
+            achievements.addAll(data.getCompletedAchievements());
         }
+        achievementRegistry.ensureRegistered(conn, achievements);
         
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, data.getUUID().toString());
-            stmt.setDouble(2, data.getCurrentProgress());
-            stmt.setDouble(3, data.getLastProgress());
-            stmt.setLong(4, data.getLastUpdate());
-            stmt.setLong(5, data.getLastDeathTime());
-            
-            // Serialize achievements
-            String achievementsJson = gson.toJson(data.getCompletedAchievements());
-            stmt.setString(6, achievementsJson);
-            
-            stmt.setLong(7, data.getFirstJoin());
-            stmt.setLong(8, data.getLastSeen());
-            stmt.setDouble(9, data.getLastEquipmentValue());
+        byte[][] bits = new byte[batch.size()][];
+        int index = 0;
+        for (PlayerData data : batch) {
+            byte[] encoded = null;
+            while (encoded == null) {
+                try {
+                    // Cached on the data until the set changes
+                    encoded = data.getAchievementBits(achievementRegistry::encode);
+                } catch (IllegalStateException e) {
+                    // Granted since the batch's IDs were registered - register this player's too
+                    achievementRegistry.ensureRegistered(conn, data.getCompletedAchievements());
+                }
+            }
+            bits[index++] = encoded;
+        }
+        return bits;
+    }
+    
+    private void bindPlayerData(PreparedStatement stmt, PlayerData data, byte[] achievementBits) throws SQLException {
+        uuidCodec.bind(stmt, 1, data.getUUID());
+        stmt.setDouble(2, data.getCurrentProgress());
+        stmt.setDouble(3, data.getLastProgress());
+        stmt.setLong(4, data.getLastUpdate());
+        stmt.setLong(5, data.getLastDeathTime());
+        stmt.setBytes(6, achievementBits);
+        stmt.setLong(7, data.getFirstJoin());
+        stmt.setLong(8, data.getLastSeen());
+        stmt.setDouble(9, data.getLastEquipmentValue());
+        stmt.setInt(10, data.getTotalDeaths());
+        stmt.setDouble(11, data.getCurrentDeathPenalty());
+        
+        // Score breakdown, in SCORE_COLUMNS (ordinal) order
+        int index = 12;
+        for (double score : data.getCategoryScores()) {
+            stmt.setDouble(index++, score);
+        }
+        
+        // Ender chest scores, in ENDER_CHEST_COLUMNS (component) order
+        for (double score : data.getEnderChestScores()) {
+            stmt.setDouble(index++, score);
+        }
+    }
+    
+    private static String getScoreColumn(ProgressCategory category) {
+        return "score_" + category.name().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Replace the stored graves of players whose graves changed
+     */
+    private void saveGraves(Connection conn, List<PlayerData> players) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM wdp_progress_graves WHERE uuid = ?");
+             PreparedStatement insert = conn.prepareStatement(
+                 "INSERT INTO wdp_progress_graves (grave_id, uuid, total_value, recovered_value, creation_time) " +
+                 "VALUES (?, ?, ?, ?, ?)")) {
             
-            stmt.executeUpdate();
-            return true;
+            boolean hasGraves = false;
+            for (PlayerData data : players) {
+                uuidCodec.bind(delete, 1, data.getUUID());
+                delete.addBatch();
+                
+                for (PlayerData.GraveData grave : data.getActiveGraves().values()) {
+                    insert.setString(1, grave.getGraveUUID());
+                    uuidCodec.bind(insert, 2, data.getUUID());
+                    insert.setDouble(3, grave.getTotalItemValue());
+                    insert.setDouble(4, grave.getRecoveredValue());
+                    insert.setLong(5, grave.getCreationTime());
+                    insert.addBatch();
+                    hasGraves = true;
+                }
+            }
             
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + data.getUUID(), e);
-            return false;
+            delete.executeBatch();
+            if (hasGraves) {
+                insert.executeBatch();
+            }
         }
     }
     
+    /**
+     * Upsert for a player's running statistic counters
+     */
+    private String getSaveCountersSql() {
+        return databaseType.equals("MYSQL") ?
+            "INSERT INTO wdp_progress_counters " +
+            "(uuid, mob_kills, mob_bonus, blocks_mined, block_bonus, bonus_hash, stamp_play_time, stamp_mob_kills) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "mob_kills = VALUES(mob_kills), " +
+            "mob_bonus = VALUES(mob_bonus), " +
+            "blocks_mined = VALUES(blocks_mined), " +
+            "block_bonus = VALUES(block_bonus), " +
+            "bonus_hash = VALUES(bonus_hash), " +
+            "stamp_play_time = VALUES(stamp_play_time), " +
+            "stamp_mob_kills = VALUES(stamp_mob_kills)" :
+            "INSERT OR REPLACE INTO wdp_progress_counters " +
+            "(uuid, mob_kills, mob_bonus, blocks_mined, block_bonus, bonus_hash, stamp_play_time, stamp_mob_kills) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+    
+    private void bindStatisticCounters(PreparedStatement stmt, PlayerData data) throws SQLException {
+        uuidCodec.bind(stmt, 1, data.getUUID());
+        stmt.setLong(2, data.getMobKillCount());
+        stmt.setDouble(3, data.getMobKillBonus());
+        stmt.setLong(4, data.getBlocksMinedCount());
+        stmt.setDouble(5, data.getBlocksMinedBonus());
+        stmt.setInt(6, data.getCounterBonusHash());
+        stmt.setInt(7, data.getCounterStampPlayTime());
+        stmt.setInt(8, data.getCounterStampMobKills());
+    }
+    
     /**
      * Record progress in history table
+     *
+     * @return A future completed once the point is written
      */
-    public void recordProgressHistory(UUID uuid, double progress) {
+    public CompletableFuture<Void> recordProgressHistory(UUID uuid, double progress) {
         String sql = "INSERT INTO wdp_progress_history (uuid, progress, timestamp) VALUES (?, ?, ?)";
+        long timestamp = System.currentTimeMillis();
         
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, uuid.toString());
-            stmt.setDouble(2, progress);
-            stmt.setLong(3, System.currentTimeMillis());
-            
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to record progress history", e);
-        }
+        return submitWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidCodec.bind(stmt, 1, uuid);
+                stmt.setDouble(2, progress);
+                stmt.setLong(3, timestamp);
+                
+                stmt.executeUpdate();
+            }
+            return (Void) null;
+        }).whenComplete((ignored, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to record progress history", e);
+            }
+        });
     }
     
     /**
-     * Get progress history for a player
+     * Get progress history for a player, newest first.
+     * Raw points and the hourly/daily rollups (their averages) are merged into one timeline.
      */
     public List<ProgressHistoryEntry> getProgressHistory(UUID uuid, int limit) {
         List<ProgressHistoryEntry> history = new ArrayList<>();
-        String sql = "SELECT progress, timestamp FROM wdp_progress_history WHERE uuid = ? ORDER BY timestamp DESC LIMIT ?";
+        String sql = "SELECT progress, timestamp FROM " + mergedHistory("%s <= ?") + " ORDER BY timestamp DESC LIMIT ?";
         
-        try (Connection conn = getConnection();
+        try (Connection conn = getReportingConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, uuid.toString());
-            stmt.setInt(2, limit);
+            int next = bindMergedHistory(stmt, 1, uuid, Long.MAX_VALUE);
+            stmt.setInt(next, limit);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -337,52 +889,167 @@ public class DatabaseManager {
     }
     
     /**
-     * Get top players by progress
+     * Get a player's progress history between two times (inclusive), oldest first.
+     * Raw points and rollup averages are merged into one timeline.
      */
-    public List<Map.Entry<UUID, Double>> getTopPlayers(int limit) {
-        List<Map.Entry<UUID, Double>> topPlayers = new ArrayList<>();
-        String sql = "SELECT uuid, current_progress FROM wdp_progress ORDER BY current_progress DESC LIMIT ?";
+    public List<ProgressHistoryEntry> getProgressHistory(UUID uuid, long from, long to) {
+        List<ProgressHistoryEntry> history = new ArrayList<>();
+        String sql = "SELECT progress, timestamp FROM " + mergedHistory("%s BETWEEN ? AND ?") + " ORDER BY timestamp ASC";
         
-        try (Connection conn = getConnection();
+        try (Connection conn = getReportingConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, limit);
+            bindMergedHistory(stmt, 1, uuid, from, to);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    UUID uuid = UUID.fromString(rs.getString("uuid"));
-                    double progress = rs.getDouble("current_progress");
-                    topPlayers.add(new AbstractMap.SimpleEntry<>(uuid, progress));
+                    history.add(new ProgressHistoryEntry(rs.getDouble("progress"), rs.getLong("timestamp")));
                 }
             }
             
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to get top players", e);
+            plugin.getLogger().log(Level.WARNING, "Failed to get progress history", e);
         }
         
-        return topPlayers;
+        return history;
     }
     
     /**
-     * Delete old progress history entries
+     * Get a player's progress as of a point in time (the latest entry at or before it)
+     * 
+     * @return the entry, or null if there is no history that old
      */
-    public void cleanupHistory(long olderThanMillis) {
-        String sql = "DELETE FROM wdp_progress_history WHERE timestamp < ?";
+    public ProgressHistoryEntry getProgressAt(UUID uuid, long time) {
+        String sql = "SELECT progress, timestamp FROM " + mergedHistory("%s <= ?") + " ORDER BY timestamp DESC LIMIT 1";
+        
+        try (Connection conn = getReportingConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            bindMergedHistory(stmt, 1, uuid, time);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ProgressHistoryEntry(rs.getDouble("progress"), rs.getLong("timestamp"));
+                }
+            }
+            
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to get progress at time", e);
+        }
         
-        try (Connection conn = getConnection();
+        return null;
+    }
+    
+    /**
+     * Get a player's progress between two times, averaged into at most {@code points}
+     * evenly sized slots on the database side (for graphs). Empty slots are omitted;
+     * each entry is stamped with the start of its slot. Oldest first.
+     */
+    public List<ProgressHistoryEntry> getDownsampledHistory(UUID uuid, long from, long to, int points) {
+        List<ProgressHistoryEntry> history = new ArrayList<>();
+        long slotMillis = Math.max(1L, (to - from + points - 1) / Math.max(1, points));
+        // A point exactly at 'to' would land one past the last slot when the range divides evenly
+        String slot = isMySQL() ? "LEAST((timestamp - ?) DIV ?, ?)" : "MIN(CAST((timestamp - ?) / ? AS INTEGER), ?)";
+        String sql = "SELECT " + slot + " AS slot, AVG(progress) AS progress FROM " +
+                    mergedHistory("%s BETWEEN ? AND ?") + " GROUP BY slot ORDER BY slot ASC";
+        
+        try (Connection conn = getReportingConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            long cutoff = System.currentTimeMillis() - olderThanMillis;
-            stmt.setLong(1, cutoff);
+            stmt.setLong(1, from);
+            stmt.setLong(2, slotMillis);
+            stmt.setInt(3, Math.max(1, points) - 1);
+            bindMergedHistory(stmt, 4, uuid, from, to);
             
-            int deleted = stmt.executeUpdate();
-            if (deleted > 0) {
-                plugin.getLogger().info("Cleaned up " + deleted + " old progress history entries");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    history.add(new ProgressHistoryEntry(rs.getDouble("progress"), from + rs.getLong("slot") * slotMillis));
+                }
             }
             
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to cleanup history", e);
+            plugin.getLogger().log(Level.WARNING, "Failed to get downsampled progress history", e);
         }
+        
+        return history;
+    }
+    
+    /**
+     * Derived table merging raw history with the hourly and daily rollups (as averages).
+     * The condition is applied to each tier's time column, so each branch can use its index.
+     */
+    private String mergedHistory(String timeCondition) {
+        return "(" +
+            "SELECT progress, timestamp FROM " + HistoryCompactor.RAW_TABLE +
+            " WHERE uuid = ? AND " + String.format(timeCondition, "timestamp") +
+            " UNION ALL SELECT avg_progress, bucket_start FROM " + HistoryCompactor.HOURLY_TABLE +
+            " WHERE uuid = ? AND " + String.format(timeCondition, "bucket_start") +
+            " UNION ALL SELECT avg_progress, bucket_start FROM " + HistoryCompactor.DAILY_TABLE +
+            " WHERE uuid = ? AND " + String.format(timeCondition, "bucket_start") +
+            ") merged";
+    }
+    
+    /**
+     * Bind the parameters of {@link #mergedHistory(String)}
+     * 
+     * @return the next parameter index
+     */
+    private int bindMergedHistory(PreparedStatement stmt, int index, UUID uuid, long... times) throws SQLException {
+        for (int tier = 0; tier < 3; tier++) {
+            uuidCodec.bind(stmt, index++, uuid);
+            for (long time : times) {
+                stmt.setLong(index++, time);
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Load every stored player's progress (used to build the leaderboard index)
+     */
+    public Map<UUID, Double> loadAllProgress() {
+        Map<UUID, Double> allProgress = new HashMap<>();
+        String sql = "SELECT uuid, current_progress FROM wdp_progress";
+        
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                allProgress.put(uuidCodec.read(rs, "uuid"), rs.getDouble("current_progress"));
+            }
+            
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load progress for the leaderboard", e);
+        }
+        
+        return allProgress;
+    }
+    
+    /**
+     * Delete old raw progress history entries (compaction normally rolls them up instead)
+     *
+     * @return A future completed with the number of entries deleted
+     */
+    public CompletableFuture<Integer> cleanupHistory(long olderThanMillis) {
+        String sql = "DELETE FROM wdp_progress_history WHERE timestamp < ?";
+        long cutoff = System.currentTimeMillis() - olderThanMillis;
+        
+        return submitWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, cutoff);
+                
+                int deleted = stmt.executeUpdate();
+                if (deleted > 0) {
+                    plugin.getLogger().info("Cleaned up " + deleted + " old progress history entries");
+                }
+                return deleted;
+            }
+        }).whenComplete((deleted, e) -> {
+            if (e != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to cleanup history", e);
+            }
+        });
     }
     
     /**
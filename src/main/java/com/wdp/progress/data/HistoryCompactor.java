@@ -0,0 +1,296 @@
+package com.wdp.progress.data;
+
+import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.config.ConfigManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Background compaction of progress history into retention tiers.
+ *
+ * Raw points are kept for a recent window, then folded into hourly
+ * min/avg/max buckets, which are in turn folded into daily buckets. Work is
+ * done in small chunks, each in its own short transaction on the database
+ * writer thread, so neither SQLite nor MySQL holds locks for long and player
+ * saves queued in between aren't held up for the whole run.
+ */
+public class HistoryCompactor implements Runnable {
+
+    public static final String RAW_TABLE = "wdp_progress_history";
+    public static final String HOURLY_TABLE = "wdp_progress_history_hourly";
+    public static final String DAILY_TABLE = "wdp_progress_history_daily";
+
+    private static final long HOUR = 3600000L;
+    private static final long DAY = 24 * HOUR;
+
+    private final WDPProgressPlugin plugin;
+
+    public HistoryCompactor(WDPProgressPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void run() {
+        ConfigManager config = plugin.getConfigManager();
+        long now = System.currentTimeMillis();
+        int chunkSize = config.getHistoryCompactionChunkSize();
+
+        try {
+            int raw = rollUpRaw(now - config.getHistoryRawRetentionDays() * DAY, chunkSize);
+            int hourly = rollUpHourly(now - config.getHistoryHourlyRetentionDays() * DAY, chunkSize);
+            int daily = config.getHistoryDailyRetentionDays() > 0 ?
+                deleteDaily(now - config.getHistoryDailyRetentionDays() * DAY, chunkSize) : 0;
+
+            if (config.isDebugEnabled() && raw + hourly + daily > 0) {
+                plugin.getLogger().info(String.format(
+                    "History compaction: %d raw points rolled up, %d hourly buckets rolled up, %d daily buckets expired",
+                    raw, hourly, daily));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to compact progress history", e);
+        }
+    }
+
+    /**
+     * Fold raw points older than the cutoff into hourly buckets
+     */
+    private int rollUpRaw(long cutoff, int chunkSize) throws SQLException {
+        String select = "SELECT id, uuid, progress, timestamp FROM " + RAW_TABLE +
+            " WHERE timestamp < ? ORDER BY id LIMIT ?";
+        String delete = "DELETE FROM " + RAW_TABLE + " WHERE id = ?";
+
+        UuidCodec codec = plugin.getDatabaseManager().getUuidCodec();
+        int total = 0;
+        while (true) {
+            int chunk = plugin.getDatabaseManager().write(conn -> {
+                Map<String, Bucket> buckets = new LinkedHashMap<>();
+                List<Long> ids = new ArrayList<>();
+
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setLong(1, cutoff);
+                    stmt.setInt(2, chunkSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getLong("id"));
+                            double progress = rs.getDouble("progress");
+                            addToBucket(buckets, codec.read(rs, "uuid"), rs.getLong("timestamp"), HOUR,
+                                progress, progress, progress, 1);
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+
+                inTransaction(conn, () -> {
+                    mergeBuckets(conn, HOURLY_TABLE, buckets);
+                    try (PreparedStatement stmt = conn.prepareStatement(delete)) {
+                        for (long id : ids) {
+                            stmt.setLong(1, id);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                });
+
+                return ids.size();
+            });
+
+            total += chunk;
+            if (chunk < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Fold hourly buckets older than the cutoff into daily buckets
+     */
+    private int rollUpHourly(long cutoff, int chunkSize) throws SQLException {
+        String select = "SELECT uuid, bucket_start, min_progress, avg_progress, max_progress, samples FROM " +
+            HOURLY_TABLE + " WHERE bucket_start < ? ORDER BY bucket_start, uuid LIMIT ?";
+        String delete = "DELETE FROM " + HOURLY_TABLE + " WHERE uuid = ? AND bucket_start = ?";
+
+        UuidCodec codec = plugin.getDatabaseManager().getUuidCodec();
+        int total = 0;
+        while (true) {
+            int chunk = plugin.getDatabaseManager().write(conn -> {
+                Map<String, Bucket> buckets = new LinkedHashMap<>();
+                List<Object[]> keys = new ArrayList<>();
+
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setLong(1, cutoff);
+                    stmt.setInt(2, chunkSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            UUID uuid = codec.read(rs, "uuid");
+                            long bucketStart = rs.getLong("bucket_start");
+                            keys.add(new Object[] { uuid, bucketStart });
+                            addToBucket(buckets, uuid, bucketStart, DAY, rs.getDouble("min_progress"),
+                                rs.getDouble("avg_progress"), rs.getDouble("max_progress"), rs.getInt("samples"));
+                        }
+                    }
+                }
+                if (keys.isEmpty()) {
+                    return 0;
+                }
+
+                inTransaction(conn, () -> {
+                    mergeBuckets(conn, DAILY_TABLE, buckets);
+                    try (PreparedStatement stmt = conn.prepareStatement(delete)) {
+                        for (Object[] key : keys) {
+                            codec.bind(stmt, 1, (UUID) key[0]);
+                            stmt.setLong(2, (Long) key[1]);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                });
+
+                return keys.size();
+            });
+
+            total += chunk;
+            if (chunk < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Drop daily buckets past the retention window
+     */
+    private int deleteDaily(long cutoff, int chunkSize) throws SQLException {
+        String select = "SELECT uuid, bucket_start FROM " + DAILY_TABLE + " WHERE bucket_start < ? LIMIT ?";
+        String delete = "DELETE FROM " + DAILY_TABLE + " WHERE uuid = ? AND bucket_start = ?";
+
+        UuidCodec codec = plugin.getDatabaseManager().getUuidCodec();
+        int total = 0;
+        while (true) {
+            int chunk = plugin.getDatabaseManager().write(conn -> {
+                List<Object[]> keys = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setLong(1, cutoff);
+                    stmt.setInt(2, chunkSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            keys.add(new Object[] { codec.read(rs, "uuid"), rs.getLong("bucket_start") });
+                        }
+                    }
+                }
+                if (keys.isEmpty()) {
+                    return 0;
+                }
+
+                inTransaction(conn, () -> {
+                    try (PreparedStatement stmt = conn.prepareStatement(delete)) {
+                        for (Object[] key : keys) {
+                            codec.bind(stmt, 1, (UUID) key[0]);
+                            stmt.setLong(2, (Long) key[1]);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                });
+
+                return keys.size();
+            });
+
+            total += chunk;
+            if (chunk < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    private static void addToBucket(Map<String, Bucket> buckets, UUID uuid, long timestamp, long bucketMillis,
+                                    double min, double avg, double max, int samples) {
+        long bucketStart = timestamp - Math.floorMod(timestamp, bucketMillis);
+        buckets.computeIfAbsent(uuid + "|" + bucketStart, key -> new Bucket(uuid, bucketStart))
+            .add(min, avg, max, samples);
+    }
+
+    /**
+     * Upsert buckets, combining with any existing bucket for the same player and start
+     */
+    private void mergeBuckets(Connection conn, String table, Map<String, Bucket> buckets) throws SQLException {
+        String sql = plugin.getDatabaseManager().isMySQL() ?
+            "INSERT INTO " + table + " (uuid, bucket_start, min_progress, avg_progress, max_progress, samples) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "min_progress = LEAST(min_progress, VALUES(min_progress)), " +
+            "max_progress = GREATEST(max_progress, VALUES(max_progress)), " +
+            // avg before samples - MySQL applies assignments left to right
+            "avg_progress = (avg_progress * samples + VALUES(avg_progress) * VALUES(samples)) / (samples + VALUES(samples)), " +
+            "samples = samples + VALUES(samples)" :
+            "INSERT INTO " + table + " (uuid, bucket_start, min_progress, avg_progress, max_progress, samples) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(uuid, bucket_start) DO UPDATE SET " +
+            "min_progress = MIN(min_progress, excluded.min_progress), " +
+            "max_progress = MAX(max_progress, excluded.max_progress), " +
+            "avg_progress = (avg_progress * samples + excluded.avg_progress * excluded.samples) / (samples + excluded.samples), " +
+            "samples = samples + excluded.samples";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Bucket bucket : buckets.values()) {
+                plugin.getDatabaseManager().getUuidCodec().bind(stmt, 1, bucket.uuid);
+                stmt.setLong(2, bucket.start);
+                stmt.setDouble(3, bucket.min);
+                stmt.setDouble(4, bucket.sum / bucket.samples);
+                stmt.setDouble(5, bucket.max);
+                stmt.setInt(6, bucket.samples);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void inTransaction(Connection conn, SqlWork work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            work.run();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Running min/avg/max for one player and bucket
+     */
+    private static class Bucket {
+        private final UUID uuid;
+        private final long start;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private double sum;
+        private int samples;
+
+        Bucket(UUID uuid, long start) {
+            this.uuid = uuid;
+            this.start = start;
+        }
+
+        void add(double min, double avg, double max, int samples) {
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+            this.sum += avg * samples;
+            this.samples += samples;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.wdp.progress.data;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory leaderboard of every stored player's progress.
+ *
+ * An order-statistic treap ordered by progress (highest first) then UUID, so
+ * updates, rank lookups and selecting the n-th player are all O(log n).
+ * Top-N and "players around me" windows are served without touching the database.
+ */
+public class LeaderboardIndex {
+
+    private final Map<UUID, Double> progressByPlayer = new HashMap<>();
+    private Node root;
+
+    /**
+     * Replace the whole index, e.g. from a full table scan at startup
+     */
+    public synchronized void load(Map<UUID, Double> allProgress) {
+        progressByPlayer.clear();
+        root = null;
+        for (Map.Entry<UUID, Double> entry : allProgress.entrySet()) {
+            update(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Insert a player or move them to their new progress
+     */
+    public synchronized void update(UUID uuid, double progress) {
+        Double previous = progressByPlayer.put(uuid, progress);
+        if (previous != null) {
+            if (previous == progress) {
+                return;
+            }
+            root = erase(root, previous, uuid);
+        }
+        Node node = new Node(progress, uuid);
+        Node[] parts = split(root, progress, uuid);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    public synchronized void remove(UUID uuid) {
+        Double previous = progressByPlayer.remove(uuid);
+        if (previous != null) {
+            root = erase(root, previous, uuid);
+        }
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * @return the player's 1-based rank, or -1 if they aren't on the leaderboard
+     */
+    public synchronized int getRank(UUID uuid) {
+        Double progress = progressByPlayer.get(uuid);
+        if (progress == null) {
+            return -1;
+        }
+
+        // Count everyone ordered before this player
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(progress, uuid, node.progress, node.uuid);
+            if (cmp > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return before + 1;
+    }
+
+    /**
+     * The highest-ranked players, best first
+     */
+    public synchronized List<Map.Entry<UUID, Double>> getTop(int limit) {
+        return getRange(0, limit);
+    }
+
+    /**
+     * The players ranked within {@code radius} places of this player (inclusive),
+     * or an empty list if they aren't on the leaderboard
+     */
+    public synchronized List<Map.Entry<UUID, Double>> getNeighbors(UUID uuid, int radius) {
+        int rank = getRank(uuid);
+        if (rank < 0) {
+            return new ArrayList<>();
+        }
+        int from = Math.max(0, rank - 1 - radius);
+        return getRange(from, rank + radius - from);
+    }
+
+    /**
+     * Up to {@code count} players starting at the 0-based position {@code from}
+     */
+    public synchronized List<Map.Entry<UUID, Double>> getRange(int from, int count) {
+        int to = Math.min(size(root), from + Math.max(0, count));
+        List<Map.Entry<UUID, Double>> entries = new ArrayList<>(Math.max(0, to - from));
+        for (int i = Math.max(0, from); i < to; i++) {
+            Node node = select(i);
+            entries.add(new AbstractMap.SimpleEntry<>(node.uuid, node.progress));
+        }
+        return entries;
+    }
+
+    // Treap internals
+
+    private Node select(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException("Leaderboard position " + index);
+    }
+
+    /**
+     * Split into nodes ordered before the key and the rest
+     */
+    private static Node[] split(Node node, double progress, UUID uuid) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        if (compare(node.progress, node.uuid, progress, uuid) < 0) {
+            Node[] parts = split(node.right, progress, uuid);
+            node.right = parts[0];
+            node.update();
+            return new Node[] { node, parts[1] };
+        }
+        Node[] parts = split(node.left, progress, uuid);
+        node.left = parts[1];
+        node.update();
+        return new Node[] { parts[0], node };
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node erase(Node node, double progress, UUID uuid) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(progress, uuid, node.progress, node.uuid);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = erase(node.left, progress, uuid);
+        } else {
+            node.right = erase(node.right, progress, uuid);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Leaderboard order: highest progress first, ties broken by UUID
+     */
+    private static int compare(double progressA, UUID uuidA, double progressB, UUID uuidB) {
+        int cmp = Double.compare(progressB, progressA);
+        return cmp != 0 ? cmp : uuidA.compareTo(uuidB);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static class Node {
+        private final double progress;
+        private final UUID uuid;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(double progress, UUID uuid) {
+            this.progress = progress;
+            this.uuid = uuid;
+        }
+
+        void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
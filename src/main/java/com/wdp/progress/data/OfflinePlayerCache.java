@@ -0,0 +1,133 @@
+package com.wdp.progress.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Size-bounded, expiring cache for players who aren't online.
+ *
+ * Segmented LRU: new entries go into a small probation segment and are only
+ * promoted to the protected segment on a second hit, so a one-off scan over many
+ * offline players (e.g. a leaderboard render) can't flush the regularly used ones.
+ * Unknown UUIDs are cached too (as a null entry) so repeated lookups of players
+ * who never joined don't hit the database.
+ */
+public class OfflinePlayerCache {
+
+    private final int probationCapacity;
+    private final int protectedCapacity;
+    private final long expireAfterMillis;
+
+    // Access-ordered, eldest first
+    private final LinkedHashMap<UUID, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<UUID, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    public OfflinePlayerCache(int capacity, long expireAfterMillis) {
+        int total = Math.max(2, capacity);
+        this.probationCapacity = Math.max(1, total / 5);
+        this.protectedCapacity = total - probationCapacity;
+        this.expireAfterMillis = expireAfterMillis;
+    }
+
+    /**
+     * Look up a player
+     *
+     * @return the cached entry, or null on a miss. A hit for an unknown player
+     *         has {@link Entry#getData()} == null.
+     */
+    public synchronized Entry get(UUID uuid) {
+        long now = System.currentTimeMillis();
+
+        Entry entry = protectedSegment.get(uuid);
+        if (entry != null) {
+            if (entry.isExpired(now, expireAfterMillis)) {
+                protectedSegment.remove(uuid);
+                return null;
+            }
+            return entry;
+        }
+
+        entry = probation.remove(uuid);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now, expireAfterMillis)) {
+            return null;
+        }
+
+        // Second hit - promote, demoting the protected segment's eldest if it's full
+        protectedSegment.put(uuid, entry);
+        if (protectedSegment.size() > protectedCapacity) {
+            Iterator<Map.Entry<UUID, Entry>> eldest = protectedSegment.entrySet().iterator();
+            Map.Entry<UUID, Entry> demoted = eldest.next();
+            eldest.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+            trimProbation();
+        }
+        return entry;
+    }
+
+    /**
+     * Cache a player's data, or null to remember that the player is unknown
+     */
+    public synchronized void put(UUID uuid, PlayerData data) {
+        Entry entry = new Entry(data, System.currentTimeMillis());
+        if (protectedSegment.containsKey(uuid)) {
+            protectedSegment.put(uuid, entry);
+            return;
+        }
+        probation.put(uuid, entry);
+        trimProbation();
+    }
+
+    /**
+     * Remove and return a player's cached data (e.g. when they come online)
+     */
+    public synchronized PlayerData remove(UUID uuid) {
+        Entry entry = protectedSegment.remove(uuid);
+        if (entry == null) {
+            entry = probation.remove(uuid);
+        }
+        return entry != null && !entry.isExpired(System.currentTimeMillis(), expireAfterMillis) ? entry.getData() : null;
+    }
+
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    public synchronized void clear() {
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    private void trimProbation() {
+        Iterator<UUID> eldest = probation.keySet().iterator();
+        while (probation.size() > probationCapacity && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * A cached lookup result; data is null for a player with no stored data
+     */
+    public static class Entry {
+        private final PlayerData data;
+        private final long cachedAt;
+
+        Entry(PlayerData data, long cachedAt) {
+            this.data = data;
+            this.cachedAt = cachedAt;
+        }
+
+        public PlayerData getData() {
+            return data;
+        }
+
+        boolean isExpired(long now, long expireAfterMillis) {
+            return now - cachedAt > expireAfterMillis;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.wdp.progress.data;
 
+import com.wdp.progress.progress.ItemValuationEngine;
+import com.wdp.progress.progress.ProgressCategory;
+
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Player data container.
@@ -10,9 +16,10 @@ import java.util.Set;
 public class PlayerData {
     
     private final java.util.UUID uuid;
-    private double currentProgress;
-    private double lastProgress;
-    private long lastUpdate;
+    // Written by calculation workers, read from the main thread
+    private volatile double currentProgress;
+    private volatile double lastProgress;
+    private volatile long lastUpdate;
     private long lastDeathTime;
     private final Set<String> completedAchievements;
     private long firstJoin;
@@ -25,8 +32,43 @@ public class PlayerData {
     private int totalDeaths;
     
     // GravesX-based death penalty tracking
-    private double currentDeathPenalty;
+    private volatile double currentDeathPenalty;
     private final java.util.Map<String, GraveData> activeGraves; // UUID -> GraveData
+    // Bumped whenever a grave changes, so saves only rewrite graves when needed
+    private volatile int graveVersion;
+    private volatile int savedGraveVersion;
+    
+    // Running statistic counters (kept current from statistic increment events)
+    private boolean statisticCountersSeeded;
+    private boolean hasStoredCounters;
+    private long mobKillCount;
+    private double mobKillBonus;
+    private long blocksMinedCount;
+    private double blocksMinedBonus;
+    private int counterBonusHash;
+    private int counterStampPlayTime = -1;
+    private int counterStampMobKills = -1;
+    
+    // Last computed score per category, reused for categories that haven't changed
+    private final double[] categoryScores = new double[ProgressCategory.values().length];
+    private int validCategoryMask;
+    private boolean hasCategoryScores;
+    private long lastFullRecalculation;
+    
+    // Equipment change tracking - bumped by inventory events; inventory component scores
+    // are reused while the generation they were scanned at is current (the ender chest is
+    // tracked separately, below)
+    private long equipmentGeneration;
+    private double[] inventoryComponentScores;
+    private long inventoryComponentGeneration = -1;
+    
+    // Ender chest component scores - refreshed on join and when an ender chest is closed
+    private final double[] enderChestScores = new double[ItemValuationEngine.getComponentCount()];
+    
+    // Dirty tracking - bumped by every mutator of persisted state
+    private final AtomicLong modVersion = new AtomicLong(1);
+    private volatile long savedVersion;
+    private byte[] achievementBits;
     
     public PlayerData(java.util.UUID uuid) {
         this.uuid = uuid;
@@ -40,7 +82,7 @@ public class PlayerData {
         this.lastEquipmentValue = 0.0;
         this.totalDeaths = 0;
         this.currentDeathPenalty = 0.0;
-        this.activeGraves = new java.util.HashMap<>();
+        this.activeGraves = new java.util.concurrent.ConcurrentHashMap<>();
     }
     
     public java.util.UUID getUUID() {
@@ -52,9 +94,13 @@ public class PlayerData {
     }
     
     public void setCurrentProgress(double progress) {
+        if (progress == this.currentProgress) {
+            return;
+        }
         this.lastProgress = this.currentProgress;
         this.currentProgress = progress;
         this.lastUpdate = System.currentTimeMillis();
+        markModified();
     }
     
     public double getLastProgress() {
@@ -79,38 +125,58 @@ public class PlayerData {
     
     public void incrementDeaths() {
         this.totalDeaths++;
+        markModified();
     }
     
     public void setTotalDeaths(int deaths) {
         this.totalDeaths = deaths;
+        markModified();
     }
     
     public void setLastDeathTime(long time) {
         this.lastDeathTime = time;
+        markModified();
     }
     
-    public Set<String> getCompletedAchievements() {
+    public synchronized Set<String> getCompletedAchievements() {
         return new HashSet<>(completedAchievements);
     }
     
-    public void addAchievement(String achievementId) {
-        completedAchievements.add(achievementId);
+    public synchronized void addAchievement(String achievementId) {
+        if (completedAchievements.add(achievementId)) {
+            achievementBits = null;
+            markModified();
+        }
     }
     
-    public void removeAchievement(String achievementId) {
-        completedAchievements.remove(achievementId);
+    public synchronized void removeAchievement(String achievementId) {
+        if (completedAchievements.remove(achievementId)) {
+            achievementBits = null;
+            markModified();
+        }
     }
     
-    public boolean hasAchievement(String achievementId) {
+    public synchronized boolean hasAchievement(String achievementId) {
         return completedAchievements.contains(achievementId);
     }
     
+    /**
+     * Encoded achievements (see {@link AchievementRegistry}), cached until the set changes
+     */
+    public synchronized byte[] getAchievementBits(Function<Set<String>, byte[]> encoder) {
+        if (achievementBits == null) {
+            achievementBits = encoder.apply(completedAchievements);
+        }
+        return achievementBits;
+    }
+    
     public long getFirstJoin() {
         return firstJoin;
     }
     
     public void setFirstJoin(long firstJoin) {
         this.firstJoin = firstJoin;
+        markModified();
     }
     
     public long getLastSeen() {
@@ -119,6 +185,7 @@ public class PlayerData {
     
     public void setLastSeen(long lastSeen) {
         this.lastSeen = lastSeen;
+        markModified();
     }
     
     public double getLastEquipmentValue() {
@@ -126,7 +193,10 @@ public class PlayerData {
     }
     
     public void setLastEquipmentValue(double value) {
-        this.lastEquipmentValue = value;
+        if (value != this.lastEquipmentValue) {
+            this.lastEquipmentValue = value;
+            markModified();
+        }
     }
     
     /**
@@ -143,6 +213,35 @@ public class PlayerData {
         return Math.abs(getProgressDelta()) >= threshold;
     }
     
+    // === Dirty Tracking ===
+    
+    private void markModified() {
+        modVersion.incrementAndGet();
+    }
+    
+    /**
+     * Current modification version; read it before writing the data out
+     */
+    public long getModVersion() {
+        return modVersion.get();
+    }
+    
+    /**
+     * Record that everything up to the given version has been persisted
+     */
+    public synchronized void markSaved(long version) {
+        if (version > savedVersion) {
+            savedVersion = version;
+        }
+    }
+    
+    /**
+     * Whether anything has changed since the last successful save
+     */
+    public boolean isDirty() {
+        return modVersion.get() != savedVersion;
+    }
+    
     // === GravesX Death Penalty Methods ===
     
     public double getCurrentDeathPenalty() {
@@ -150,15 +249,33 @@ public class PlayerData {
     }
     
     public void setCurrentDeathPenalty(double penalty) {
-        this.currentDeathPenalty = Math.max(0.0, penalty);
+        double clamped = Math.max(0.0, penalty);
+        if (clamped != this.currentDeathPenalty) {
+            this.currentDeathPenalty = clamped;
+            markModified();
+        }
     }
     
     public void addGrave(String graveUUID, GraveData graveData) {
         activeGraves.put(graveUUID, graveData);
+        markGravesModified();
     }
     
     public void removeGrave(String graveUUID) {
-        activeGraves.remove(graveUUID);
+        if (activeGraves.remove(graveUUID) != null) {
+            markGravesModified();
+        }
+    }
+    
+    /**
+     * Record items recovered from a grave
+     */
+    public void addGraveRecovery(String graveUUID, double value) {
+        GraveData grave = activeGraves.get(graveUUID);
+        if (grave != null) {
+            grave.addRecoveredValue(value);
+            markGravesModified();
+        }
     }
     
     public GraveData getGrave(String graveUUID) {
@@ -170,11 +287,245 @@ public class PlayerData {
     }
     
     public void clearOldGraves() {
-        activeGraves.entrySet().removeIf(entry -> 
+        if (activeGraves.entrySet().removeIf(entry -> 
             System.currentTimeMillis() - entry.getValue().getCreationTime() > 3600000L // 1 hour
-        );
+        )) {
+            markGravesModified();
+        }
     }
     
+    /**
+     * Restore graves loaded from storage
+     */
+    public void restoreGraves(java.util.Collection<GraveData> graves) {
+        for (GraveData grave : graves) {
+            activeGraves.put(grave.getGraveUUID(), grave);
+        }
+    }
+    
+    public int getGraveVersion() {
+        return graveVersion;
+    }
+    
+    /**
+     * Whether the graves changed since they were last written
+     */
+    public boolean areGravesDirty() {
+        return graveVersion != savedGraveVersion;
+    }
+    
+    public void markGravesSaved(int version) {
+        this.savedGraveVersion = version;
+    }
+    
+    private void markGravesModified() {
+        graveVersion++;
+        markModified();
+    }
+    
+    // === Category Score Cache Methods ===
+    
+    public synchronized double getCategoryScore(ProgressCategory category) {
+        return categoryScores[category.ordinal()];
+    }
+    
+    /**
+     * Store freshly computed scores for the categories in the mask
+     */
+    public synchronized void storeCategoryScores(double[] scores, int mask) {
+        boolean changed = false;
+        for (ProgressCategory category : ProgressCategory.values()) {
+            if (category.isIn(mask) && categoryScores[category.ordinal()] != scores[category.ordinal()]) {
+                categoryScores[category.ordinal()] = scores[category.ordinal()];
+                changed = true;
+            }
+        }
+        validCategoryMask |= mask;
+        hasCategoryScores = true;
+        if (changed) {
+            markModified();
+        }
+    }
+    
+    /**
+     * Restore the last persisted scores. They are shown as-is but not reused by
+     * the next calculation, since the player may have changed since they were saved.
+     */
+    public synchronized void restoreCategoryScores(double[] scores) {
+        System.arraycopy(scores, 0, categoryScores, 0, categoryScores.length);
+        hasCategoryScores = true;
+    }
+    
+    /**
+     * Whether a score breakdown has been calculated or loaded for this player
+     */
+    public synchronized boolean hasCategoryScores() {
+        return hasCategoryScores;
+    }
+    
+    public synchronized double[] getCategoryScores() {
+        return categoryScores.clone();
+    }
+    
+    public synchronized int getValidCategoryMask() {
+        return validCategoryMask;
+    }
+    
+    public synchronized void invalidateCategories(int mask) {
+        validCategoryMask &= ~mask;
+        if (ProgressCategory.EQUIPMENT.isIn(mask)) {
+            inventoryComponentGeneration = -1;
+        }
+    }
+    
+    public long getLastFullRecalculation() {
+        return lastFullRecalculation;
+    }
+    
+    public void setLastFullRecalculation(long time) {
+        this.lastFullRecalculation = time;
+    }
+    
+    // === Equipment Generation Methods ===
+    
+    /**
+     * Record that the player's inventory or armor may have changed
+     */
+    public synchronized void bumpEquipmentGeneration() {
+        equipmentGeneration++;
+    }
+    
+    public synchronized long getEquipmentGeneration() {
+        return equipmentGeneration;
+    }
+    
+    /**
+     * Inventory component scores, if they were scanned at this generation
+     * 
+     * @return the scores indexed by equipment component, or null if they need a rescan
+     */
+    public synchronized double[] getInventoryComponentScores(long generation) {
+        return inventoryComponentGeneration == generation ? inventoryComponentScores.clone() : null;
+    }
+    
+    public synchronized void storeInventoryComponentScores(double[] scores, long generation) {
+        inventoryComponentScores = scores.clone();
+        inventoryComponentGeneration = generation;
+    }
+    
+    // === Ender Chest Score Methods ===
+    
+    /**
+     * Ender chest scores indexed by equipment component
+     */
+    public synchronized double[] getEnderChestScores() {
+        return enderChestScores.clone();
+    }
+    
+    public synchronized void storeEnderChestScores(double[] scores) {
+        if (!Arrays.equals(enderChestScores, scores)) {
+            System.arraycopy(scores, 0, enderChestScores, 0, enderChestScores.length);
+            markModified();
+        }
+    }
+    
+    /**
+     * Restore the last persisted ender chest scores (does not mark the data modified)
+     */
+    public synchronized void restoreEnderChestScores(double[] scores) {
+        System.arraycopy(scores, 0, enderChestScores, 0, enderChestScores.length);
+    }
+    
+    // === Statistic Counter Methods ===
+    
+    public boolean areStatisticCountersSeeded() {
+        return statisticCountersSeeded;
+    }
+    
+    /**
+     * Replace the counters with totals from a full statistic scan
+     */
+    public void seedStatisticCounters(long mobKills, double mobBonus, long blocksMined, double blockBonus, int bonusHash) {
+        this.mobKillCount = mobKills;
+        this.mobKillBonus = mobBonus;
+        this.blocksMinedCount = blocksMined;
+        this.blocksMinedBonus = blockBonus;
+        this.counterBonusHash = bonusHash;
+        this.counterStampPlayTime = -1;
+        this.counterStampMobKills = -1;
+        this.hasStoredCounters = true;
+        this.statisticCountersSeeded = true;
+        markModified();
+    }
+    
+    /**
+     * Restore counters loaded from storage. They are not trusted until verified.
+     */
+    public void restoreStatisticCounters(long mobKills, double mobBonus, long blocksMined, double blockBonus,
+                                         int bonusHash, int stampPlayTime, int stampMobKills) {
+        this.mobKillCount = mobKills;
+        this.mobKillBonus = mobBonus;
+        this.blocksMinedCount = blocksMined;
+        this.blocksMinedBonus = blockBonus;
+        this.counterBonusHash = bonusHash;
+        this.counterStampPlayTime = stampPlayTime;
+        this.counterStampMobKills = stampMobKills;
+        this.hasStoredCounters = true;
+        this.statisticCountersSeeded = false;
+    }
+    
+    /**
+     * Trust stored counters if the player's live statistics still match the stamps
+     * taken when they were last known current (i.e. nothing happened while we weren't watching).
+     * Stamps are single-use so a crash between saves can't validate stale counters.
+     */
+    public boolean verifyStatisticCounters(int playTime, int mobKills, int bonusHash) {
+        boolean valid = hasStoredCounters
+            && counterStampPlayTime >= 0 && counterStampPlayTime == playTime
+            && counterStampMobKills == mobKills
+            && counterBonusHash == bonusHash;
+        
+        if (counterStampPlayTime >= 0) {
+            counterStampPlayTime = -1;
+            counterStampMobKills = -1;
+            markModified();
+        }
+        statisticCountersSeeded = valid;
+        return valid;
+    }
+    
+    /**
+     * Record the live statistics the counters are current against (on quit)
+     */
+    public void stampStatisticCounters(int playTime, int mobKills) {
+        if (statisticCountersSeeded) {
+            this.counterStampPlayTime = playTime;
+            this.counterStampMobKills = mobKills;
+            markModified();
+        }
+    }
+    
+    public void addMobKills(int kills, double bonus) {
+        this.mobKillCount += kills;
+        this.mobKillBonus += kills * bonus;
+        markModified();
+    }
+    
+    public void addBlocksMined(int blocks, double bonus) {
+        this.blocksMinedCount += blocks;
+        this.blocksMinedBonus += blocks * bonus;
+        markModified();
+    }
+    
+    public boolean hasStoredCounters() { return hasStoredCounters; }
+    public long getMobKillCount() { return mobKillCount; }
+    public double getMobKillBonus() { return mobKillBonus; }
+    public long getBlocksMinedCount() { return blocksMinedCount; }
+    public double getBlocksMinedBonus() { return blocksMinedBonus; }
+    public int getCounterBonusHash() { return counterBonusHash; }
+    public int getCounterStampPlayTime() { return counterStampPlayTime; }
+    public int getCounterStampMobKills() { return counterStampMobKills; }
+    
     /**
      * Inner class to track grave data
      */
@@ -182,13 +533,17 @@ public class PlayerData {
         private final String graveUUID;
         private final long creationTime;
         private final double totalItemValue;
-        private double recoveredValue;
+        private volatile double recoveredValue;
         
         public GraveData(String graveUUID, double totalItemValue) {
+            this(graveUUID, totalItemValue, 0.0, System.currentTimeMillis());
+        }
+        
+        public GraveData(String graveUUID, double totalItemValue, double recoveredValue, long creationTime) {
             this.graveUUID = graveUUID;
-            this.creationTime = System.currentTimeMillis();
+            this.creationTime = creationTime;
             this.totalItemValue = totalItemValue;
-            this.recoveredValue = 0.0;
+            this.recoveredValue = recoveredValue;
         }
         
         public String getGraveUUID() { return graveUUID; }
@@ -2,13 +2,24 @@ package com.wdp.progress.data;
 
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.api.events.ProgressChangeEvent;
+import com.wdp.progress.progress.PlayerSnapshot;
 import com.wdp.progress.progress.ProgressCalculator;
+import com.wdp.progress.progress.ProgressCategory;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.sql.SQLException;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 /**
@@ -19,85 +30,386 @@ public class PlayerDataManager {
     
     private final WDPProgressPlugin plugin;
     private final Map<UUID, PlayerData> playerDataCache;
+    private final ExecutorService calculationExecutor;
+    private final PlayerDataWriter writer;
+    private final LeaderboardIndex leaderboard;
+    
+    // Data loaded during async pre-login, waiting for the join to pick it up
+    private final Map<UUID, StagedLoad> stagedLoads = new ConcurrentHashMap<>();
+    private static final long STAGED_LOAD_TTL = 30000; // 30 seconds
+    
+    // Unloaded players whose final save hasn't been acknowledged yet
+    private final Map<UUID, PlayerData> pendingFlush = new ConcurrentHashMap<>();
+    
+    // Players who aren't online, and database reads in progress (one per player)
+    private final OfflinePlayerCache offlineCache;
+    private final Map<UUID, CompletableFuture<PlayerData>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Set<UUID> calculationsInFlight = ConcurrentHashMap.newKeySet();
     
     public PlayerDataManager(WDPProgressPlugin plugin) {
         this.plugin = plugin;
         this.playerDataCache = new ConcurrentHashMap<>();
+        
+        // Worker pool for scoring captured snapshots off the main thread
+        AtomicInteger threadId = new AtomicInteger();
+        this.calculationExecutor = Executors.newFixedThreadPool(
+            plugin.getConfigManager().getCalculationThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "WDPProgress-Calculation-" + threadId.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        
+        // Write-behind queue for saves (null when batch saves are disabled)
+        this.writer = plugin.getConfigManager().isBatchSavesEnabled() ? new PlayerDataWriter(plugin) : null;
+        
+        this.offlineCache = new OfflinePlayerCache(plugin.getConfigManager().getOfflineCacheSize(),
+            plugin.getConfigManager().getCacheExpiration() * 1000L);
+        
+        // In-memory leaderboard of every stored player
+        this.leaderboard = new LeaderboardIndex();
+        leaderboard.load(plugin.getDatabaseManager().loadAllProgress());
+    }
+    
+    /**
+     * Stop the calculation workers (letting queued calculations finish), save
+     * every cached player and flush all pending writes before returning
+     */
+    public void shutdown() {
+        calculationExecutor.shutdown();
+        try {
+            if (!calculationExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                calculationExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            calculationExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, PlayerData> entry : playerDataCache.entrySet()) {
+            if (Bukkit.getPlayer(entry.getKey()) != null) {
+                entry.getValue().setLastSeen(now);
+            }
+            savePlayerData(entry.getKey());
+        }
+        if (writer != null) {
+            writer.shutdown();
+        } else {
+            // Quit saves still waiting on the async scheduler
+            for (PlayerData data : pendingFlush.values()) {
+                if (data.isDirty()) {
+                    plugin.getDatabaseManager().savePlayerData(data).join();
+                }
+            }
+        }
+        pendingFlush.clear();
+    }
+    
+    /**
+     * Load a joining player's data ahead of time. Called from the async
+     * pre-login event, so the join itself doesn't need to touch the database.
+     */
+    public void preloadPlayerData(UUID uuid) {
+        long now = System.currentTimeMillis();
+        stagedLoads.values().removeIf(staged -> now - staged.loadedAt > STAGED_LOAD_TTL);
+        
+        if (playerDataCache.containsKey(uuid)) {
+            return;
+        }
+        OfflinePlayerCache.Entry cached = offlineCache.get(uuid);
+        if (cached != null && cached.getData() != null) {
+            return; // The join takes it over from the offline cache
+        }
+        
+        try {
+            PlayerData data = readPlayerData(uuid);
+            stagedLoads.put(uuid, new StagedLoad(data != null ? data : new PlayerData(uuid), now));
+        } catch (SQLException e) {
+            // Leave it to the join's fallback load
+            plugin.getLogger().log(Level.WARNING, "Failed to preload player data for " + uuid, e);
+        }
     }
     
     /**
-     * Load player data from database or cache
+     * Load an online player's data from cache, the pre-login staging area or
+     * the database (blocking - only a fallback when nothing was preloaded)
      */
     public PlayerData loadPlayerData(UUID uuid) {
         // Check cache first
-        if (playerDataCache.containsKey(uuid)) {
-            return playerDataCache.get(uuid);
+        PlayerData data = playerDataCache.get(uuid);
+        if (data != null) {
+            return data;
         }
         
-        // Load from database
-        PlayerData data = plugin.getDatabaseManager().loadPlayerData(uuid);
+        // Coming online - take over the offline copy if there is one
+        data = offlineCache.remove(uuid);
+        
+        StagedLoad staged = stagedLoads.remove(uuid);
+        if (data == null && staged != null && System.currentTimeMillis() - staged.loadedAt <= STAGED_LOAD_TTL) {
+            // Prefer anything unloaded or queued since the preload over the staged copy
+            data = pendingFlush.get(uuid);
+            if (data == null && writer != null) {
+                data = writer.getQueued(uuid);
+            }
+            if (data == null) {
+                data = staged.data;
+            }
+        }
+        if (data == null) {
+            try {
+                data = readPlayerData(uuid);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, e);
+            }
+        }
+        if (data == null) {
+            data = new PlayerData(uuid);
+        }
         
         // Cache it
         if (plugin.getConfigManager().isCachingEnabled()) {
-            playerDataCache.put(uuid, data);
+            PlayerData existing = playerDataCache.putIfAbsent(uuid, data);
+            if (existing != null) {
+                return existing;
+            }
         }
         
         return data;
     }
     
     /**
-     * Save player data to database
+     * Find a player's data without creating any: the online cache, the offline
+     * cache, then the database. Unknown players are remembered as such.
+     * 
+     * @return the player's data, or null if they have never been saved
+     */
+    public PlayerData findPlayerData(UUID uuid) {
+        try {
+            return lookupPlayerData(uuid);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, e);
+            return null;
+        }
+    }
+    
+    /**
+     * {@link #findPlayerData}, but a failed database read is thrown rather than
+     * looking like an unknown player. Nothing is cached when the read fails.
+     */
+    private PlayerData lookupPlayerData(UUID uuid) throws SQLException {
+        PlayerData data = playerDataCache.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        
+        boolean caching = plugin.getConfigManager().isCachingEnabled();
+        if (caching) {
+            OfflinePlayerCache.Entry cached = offlineCache.get(uuid);
+            if (cached != null) {
+                return cached.getData();
+            }
+        }
+        
+        data = readPlayerData(uuid);
+        if (caching) {
+            offlineCache.put(uuid, data);
+        }
+        return data;
+    }
+    
+    /**
+     * Read a player's data, preferring an unloaded copy whose write hasn't been
+     * acknowledged or a save still waiting in the write queue (both are newer
+     * than the database row). Concurrent reads of the same player share one query.
+     * 
+     * @return the player's data, or null if they have never been saved
+     */
+    private PlayerData readPlayerData(UUID uuid) throws SQLException {
+        PlayerData data = pendingFlush.get(uuid);
+        if (data == null && writer != null) {
+            data = writer.getQueued(uuid);
+        }
+        if (data != null) {
+            return data;
+        }
+        
+        CompletableFuture<PlayerData> load = new CompletableFuture<>();
+        CompletableFuture<PlayerData> inFlight = inFlightLoads.putIfAbsent(uuid, load);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof SQLException ? (SQLException) e.getCause() : new SQLException(e.getCause());
+            }
+        }
+        
+        try {
+            data = plugin.getDatabaseManager().findPlayerData(uuid);
+            load.complete(data);
+            return data;
+        } catch (SQLException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(uuid, load);
+        }
+    }
+    
+    /**
+     * Save player data to database, if anything changed since the last save.
+     * With batch saves enabled this only queues the write; the writer thread
+     * flushes it with other pending saves.
      */
     public boolean savePlayerData(UUID uuid) {
         PlayerData data = playerDataCache.get(uuid);
+        if (data == null) {
+            OfflinePlayerCache.Entry cached = offlineCache.get(uuid);
+            data = cached != null ? cached.getData() : null;
+        }
         if (data == null) {
             return false;
         }
+        if (!data.isDirty()) {
+            return true;
+        }
         
-        data.setLastSeen(System.currentTimeMillis());
-        
-        return plugin.getDatabaseManager().savePlayerData(data);
+        if (writer != null) {
+            writer.enqueue(data);
+            return true;
+        }
+        return plugin.getDatabaseManager().savePlayerData(data).join();
     }
     
     /**
-     * Get player data from cache (load if not cached)
+     * Get player data from cache (load if not cached).
+     * Offline players go through the bounded offline cache; a player with no
+     * stored data gets fresh data, which is kept there until it is saved.
+     * 
+     * @return the player's data, or null if it couldn't be read from the database
      */
     public PlayerData getPlayerData(UUID uuid) {
-        return loadPlayerData(uuid);
+        PlayerData data = playerDataCache.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        if (Bukkit.getPlayer(uuid) != null) {
+            return loadPlayerData(uuid);
+        }
+        
+        try {
+            data = lookupPlayerData(uuid);
+        } catch (SQLException e) {
+            // Fresh data here would be saved over the player's real row
+            plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, e);
+            return null;
+        }
+        if (data == null) {
+            data = new PlayerData(uuid);
+            if (plugin.getConfigManager().isCachingEnabled()) {
+                offlineCache.put(uuid, data);
+            }
+        }
+        return data;
     }
     
     /**
-     * Update player progress and recalculate
+     * Update player progress and recalculate every category.
      */
     public void updatePlayerProgress(UUID uuid, boolean async) {
+        updatePlayerProgress(uuid, ProgressCategory.ALL, async);
+    }
+    
+    /**
+     * Update player progress, recalculating only the categories in the mask.
+     * Categories outside the mask reuse their cached score.
+     * 
+     * The snapshot is always captured on the main thread (callers on other threads
+     * are hopped back to it); with async enabled the scoring runs on the worker pool.
+     * A player has at most one calculation at a time: while one is in flight the
+     * mask is handed to the update scheduler, which runs it once that finishes.
+     */
+    public void updatePlayerProgress(UUID uuid, int categoryMask, boolean async) {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(plugin, () -> updatePlayerProgress(uuid, categoryMask, async));
+            return;
+        }
+        
         Player player = Bukkit.getPlayer(uuid);
         if (player == null || !player.isOnline()) {
             return;
         }
         
+        // An older snapshot finishing after this one would overwrite its result
+        if (!calculationsInFlight.add(uuid)) {
+            plugin.getUpdateScheduler().markDirty(uuid, categoryMask);
+            return;
+        }
+        
+        PlayerData data = getPlayerData(uuid);
+        PlayerSnapshot snapshot;
+        try {
+            snapshot = plugin.getProgressCalculator().captureSnapshot(player, data, categoryMask);
+        } catch (Exception e) {
+            calculationsInFlight.remove(uuid);
+            plugin.getLogger().log(Level.SEVERE, "Error capturing progress snapshot for " + player.getName(), e);
+            return;
+        }
+        
         if (async && plugin.getConfigManager().isAsyncCalculationEnabled()) {
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                performProgressUpdate(player);
-            });
+            try {
+                calculationExecutor.execute(() -> {
+                    try {
+                        performProgressUpdate(player, data, snapshot);
+                    } finally {
+                        calculationsInFlight.remove(uuid);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down - nothing left to update
+                calculationsInFlight.remove(uuid);
+            }
         } else {
-            performProgressUpdate(player);
+            try {
+                performProgressUpdate(player, data, snapshot);
+            } finally {
+                calculationsInFlight.remove(uuid);
+            }
         }
     }
     
     /**
-     * Perform the actual progress update
+     * Whether a calculation for this player is queued or running
+     */
+    public boolean isCalculationInFlight(UUID uuid) {
+        return calculationsInFlight.contains(uuid);
+    }
+    
+    /**
+     * Score a snapshot and apply the result
      */
-    private void performProgressUpdate(Player player) {
+    private void performProgressUpdate(Player player, PlayerData data, PlayerSnapshot snapshot) {
         try {
-            PlayerData data = getPlayerData(player.getUniqueId());
             double oldProgress = data.getCurrentProgress();
             
             // Calculate new progress
             ProgressCalculator calculator = plugin.getProgressCalculator();
-            ProgressCalculator.ProgressResult result = calculator.calculateProgress(player, data);
+            ProgressCalculator.ProgressResult result = calculator.calculateProgress(snapshot);
+            if (result.isFailed()) {
+                // Keep the categories dirty so the next pass retries them, and keep the old progress
+                data.invalidateCategories(snapshot.getDirtyMask());
+                return;
+            }
             
             double newProgress = result.getFinalScore();
+            data.storeCategoryScores(result.getCategoryScores(), snapshot.getDirtyMask());
+            if (result.getInventoryComponentScores() != null) {
+                data.storeInventoryComponentScores(result.getInventoryComponentScores(), snapshot.getEquipmentGeneration());
+            }
+            if (snapshot.getDirtyMask() == ProgressCategory.ALL) {
+                data.setLastFullRecalculation(snapshot.getCapturedAt());
+            }
             data.setCurrentProgress(newProgress);
+            leaderboard.update(data.getUUID(), newProgress);
             
             // Check if change is significant enough to fire event
             double threshold = plugin.getConfigManager().getEventThreshold();
@@ -125,7 +437,55 @@ public class PlayerDataManager {
     }
     
     /**
-     * Force recalculate progress for a player
+     * Periodic recalculation for a player.
+     * 
+     * Only the categories with no listener coverage (economy, movement/play time
+     * statistics, durability) are rescored, plus a full pass once the configured
+     * full recalculation interval has elapsed. If the player's debounced update is
+     * still being calculated, the mask is merged into the update scheduler instead.
+     */
+    public void periodicUpdate(UUID uuid) {
+        PlayerData data = getPlayerData(uuid);
+        long fullInterval = plugin.getConfigManager().getFullRecalculationInterval() * 1000L;
+        boolean fullDue = System.currentTimeMillis() - data.getLastFullRecalculation() >= fullInterval;
+        
+        int mask = fullDue ? ProgressCategory.ALL : ProgressCategory.mask(
+            ProgressCategory.ECONOMY, ProgressCategory.STATISTICS, ProgressCategory.EQUIPMENT);
+        
+        // Same guard as debounced updates: never submit alongside a running calculation
+        if (isCalculationInFlight(uuid)) {
+            plugin.getUpdateScheduler().markDirty(uuid, mask);
+            return;
+        }
+        updatePlayerProgress(uuid, mask, true);
+    }
+    
+    /**
+     * Drop every cached category score, e.g. after weights or bonuses change
+     */
+    public void invalidateCategoryScores() {
+        for (PlayerData data : playerDataCache.values()) {
+            data.invalidateCategories(ProgressCategory.ALL);
+        }
+    }
+    
+    /**
+     * Rescore every online player's ender chest, e.g. after item values change.
+     * Must be called from the main thread.
+     */
+    public void refreshEnderChestScores() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            PlayerData data = playerDataCache.get(player.getUniqueId());
+            if (data != null) {
+                plugin.getProgressCalculator().refreshEnderChestScores(player, data);
+            }
+        }
+    }
+    
+    /**
+     * Force recalculate progress for a player.
+     * Runs synchronously and must be called from the main thread. If a calculation
+     * is already in flight this one is queued behind it and the current value returned.
      */
     public double forceRecalculate(UUID uuid) {
         Player player = Bukkit.getPlayer(uuid);
@@ -133,16 +493,24 @@ public class PlayerDataManager {
             return -1;
         }
         
-        performProgressUpdate(player);
+        updatePlayerProgress(uuid, false);
         PlayerData data = getPlayerData(uuid);
         return data.getCurrentProgress();
     }
     
     /**
-     * Recalculate progress for a player (convenience method)
+     * Recalculate progress for a player (convenience method).
+     * Safe to call from any thread - scoring happens on the worker pool.
      */
     public void recalculateProgress(UUID uuid) {
-        forceRecalculate(uuid);
+        updatePlayerProgress(uuid, true);
+    }
+    
+    /**
+     * Recalculate only the given categories (see {@link ProgressCategory})
+     */
+    public void recalculateProgress(UUID uuid, int categoryMask) {
+        updatePlayerProgress(uuid, categoryMask, true);
     }
     
     /**
@@ -158,6 +526,7 @@ public class PlayerDataManager {
                    Math.min(plugin.getConfigManager().getMaxProgress(), progress));
         
         data.setCurrentProgress(progress);
+        leaderboard.update(uuid, progress);
         savePlayerData(uuid);
         
         return true;
@@ -168,8 +537,15 @@ public class PlayerDataManager {
      */
     public boolean resetProgress(UUID uuid) {
         PlayerData data = new PlayerData(uuid);
-        playerDataCache.put(uuid, data);
-        return plugin.getDatabaseManager().savePlayerData(data);
+        if (playerDataCache.replace(uuid, data) == null && plugin.getConfigManager().isCachingEnabled()) {
+            offlineCache.put(uuid, data);
+        }
+        leaderboard.update(uuid, data.getCurrentProgress());
+        if (writer != null) {
+            writer.enqueue(data);
+            return true;
+        }
+        return plugin.getDatabaseManager().savePlayerData(data).join();
     }
     
     /**
@@ -182,7 +558,7 @@ public class PlayerDataManager {
         }
         
         data.addAchievement(achievementId);
-        updatePlayerProgress(uuid, false);
+        updatePlayerProgress(uuid, ProgressCategory.ACHIEVEMENTS.bit(), false);
         savePlayerData(uuid);
         
         return true;
@@ -198,12 +574,23 @@ public class PlayerDataManager {
         }
         
         data.removeAchievement(achievementId);
-        updatePlayerProgress(uuid, false);
+        updatePlayerProgress(uuid, ProgressCategory.ACHIEVEMENTS.bit(), false);
         savePlayerData(uuid);
         
         return true;
     }
     
+    /**
+     * Record that a player's inventory may have changed, so their next equipment
+     * calculation rescans it. Players not held in memory are ignored.
+     */
+    public void markEquipmentChanged(UUID uuid) {
+        PlayerData data = playerDataCache.get(uuid);
+        if (data != null) {
+            data.bumpEquipmentGeneration();
+        }
+    }
+    
     /**
      * Handle player death - update death time and apply penalties
      */
@@ -215,17 +602,46 @@ public class PlayerDataManager {
         
         data.setLastDeathTime(System.currentTimeMillis());
         
-        // Trigger progress recalculation to apply death penalties
-        updatePlayerProgress(uuid, false);
+        // Trigger progress recalculation to apply death penalties (drops and lost levels too)
+        updatePlayerProgress(uuid, ProgressCategory.mask(ProgressCategory.EQUIPMENT, ProgressCategory.EXPERIENCE), false);
     }
     
     /**
      * Unload player data from cache
      */
     public void unloadPlayerData(UUID uuid) {
-        // Save before unloading
-        savePlayerData(uuid);
-        playerDataCache.remove(uuid);
+        PlayerData data = playerDataCache.remove(uuid);
+        if (data == null) {
+            return;
+        }
+        
+        // Keep serving offline lookups for them from memory for a while
+        if (plugin.getConfigManager().isCachingEnabled()) {
+            offlineCache.put(uuid, data);
+        }
+        if (!data.isDirty()) {
+            return;
+        }
+        
+        // Keep the unloaded copy readable until the write is acknowledged, so a
+        // quick rejoin picks it up instead of the older database row
+        pendingFlush.put(uuid, data);
+        if (writer != null) {
+            writer.enqueue(data).thenRun(() -> pendingFlush.remove(uuid, data));
+        } else {
+            plugin.getDatabaseManager().savePlayerData(data).thenAccept(saved -> {
+                if (saved) {
+                    pendingFlush.remove(uuid, data);
+                }
+            });
+        }
+    }
+    
+    /**
+     * In-memory leaderboard of every stored player's progress
+     */
+    public LeaderboardIndex getLeaderboard() {
+        return leaderboard;
     }
     
     /**
@@ -244,13 +660,54 @@ public class PlayerDataManager {
             savePlayerData(uuid);
         }
         playerDataCache.clear();
+        offlineCache.clear();
+    }
+    
+    /**
+     * Whether a player's data is held in memory with a save still to come (online,
+     * or unloaded with a write pending), so their stored row is about to be overwritten
+     */
+    public boolean isHeldInMemory(UUID uuid) {
+        return playerDataCache.containsKey(uuid) || pendingFlush.containsKey(uuid)
+            || (writer != null && writer.getQueued(uuid) != null);
+    }
+    
+    /**
+     * Reload the leaderboard from storage (e.g. after stored progress was rewritten in bulk),
+     * keeping the in-memory progress of players who are loaded. Also drops the offline
+     * cache, whose entries may be older than the stored rows.
+     */
+    public void rebuildLeaderboard() {
+        offlineCache.clear();
+        
+        Map<UUID, Double> allProgress = plugin.getDatabaseManager().loadAllProgress();
+        for (PlayerData data : pendingFlush.values()) {
+            allProgress.put(data.getUUID(), data.getCurrentProgress());
+        }
+        for (PlayerData data : playerDataCache.values()) {
+            allProgress.put(data.getUUID(), data.getCurrentProgress());
+        }
+        leaderboard.load(allProgress);
     }
     
     /**
      * Get progress for offline player
      */
     public double getOfflineProgress(UUID uuid) {
-        PlayerData data = plugin.getDatabaseManager().loadPlayerData(uuid);
-        return data.getCurrentProgress();
+        PlayerData data = findPlayerData(uuid);
+        return data != null ? data.getCurrentProgress() : plugin.getConfigManager().getMinProgress();
+    }
+    
+    /**
+     * Data loaded at pre-login, with when it was loaded
+     */
+    private static class StagedLoad {
+        private final PlayerData data;
+        private final long loadedAt;
+        
+        StagedLoad(PlayerData data, long loadedAt) {
+            this.data = data;
+            this.loadedAt = loadedAt;
+        }
     }
 }
@@ -0,0 +1,170 @@
+package com.wdp.progress.data;
+
+import com.wdp.progress.WDPProgressPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Write-behind queue for player data.
+ *
+ * Saves are queued per player (a player queued twice is written once, with the
+ * latest state) and flushed by a single writer thread in batches, each batch in
+ * one transaction. A flush runs when the queue reaches the batch size or when
+ * the flush interval elapses, whichever comes first.
+ *
+ * Each enqueue returns a future that completes once the data is in the database.
+ */
+public class PlayerDataWriter {
+
+    private final WDPProgressPlugin plugin;
+    private final Map<UUID, QueuedSave> queue = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public PlayerDataWriter(WDPProgressPlugin plugin) {
+        this.plugin = plugin;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WDPProgress-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = plugin.getConfigManager().getBatchFlushInterval();
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a player's data to be written
+     *
+     * @return A future completed once the data has been written
+     */
+    public CompletableFuture<Void> enqueue(PlayerData data) {
+        QueuedSave save = queue.compute(data.getUUID(), (uuid, existing) -> {
+            if (existing == null) {
+                return new QueuedSave(data);
+            }
+            existing.data = data;
+            return existing;
+        });
+
+        // Size trigger - don't wait for the interval once a full batch is waiting
+        if (queue.size() >= plugin.getConfigManager().getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false); // Shutting down - the final flush picks it up
+            }
+        }
+        return save.written;
+    }
+
+    /**
+     * The queued (not yet written) copy of a player's data, if any
+     */
+    public PlayerData getQueued(UUID uuid) {
+        QueuedSave save = queue.get(uuid);
+        return save != null ? save.data : null;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Write everything queued, in batches of the configured size
+     */
+    public synchronized void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        // Drain first, so anything requeued by a failed batch waits for the next flush
+        List<QueuedSave> pending = new ArrayList<>(queue.size());
+        for (UUID uuid : queue.keySet()) {
+            QueuedSave save = queue.remove(uuid);
+            if (save == null) {
+                continue;
+            }
+            if (save.data.isDirty()) {
+                pending.add(save);
+            } else {
+                save.written.complete(null);
+            }
+        }
+
+        int batchSize = Math.max(1, plugin.getConfigManager().getBatchSize());
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            writeBatch(pending.subList(from, Math.min(pending.size(), from + batchSize)));
+        }
+    }
+
+    private void writeBatch(List<QueuedSave> batch) {
+        List<PlayerData> rows = new ArrayList<>(batch.size());
+        for (QueuedSave save : batch) {
+            rows.add(save.data);
+        }
+
+        boolean written = false;
+        try {
+            // Wait for the database writer, so batches go out one after another
+            written = plugin.getDatabaseManager().savePlayerDataBatch(rows).join();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error writing player data batch", e);
+        }
+
+        for (QueuedSave save : batch) {
+            if (written) {
+                save.written.complete(null);
+                continue;
+            }
+            // Failed - requeue for the next flush; if a newer save was queued
+            // since, this one is acknowledged along with it
+            queue.merge(save.data.getUUID(), save, (newer, failed) -> {
+                newer.written.thenRun(() -> failed.written.complete(null));
+                return newer;
+            });
+        }
+    }
+
+    /**
+     * Stop the writer thread and write everything still queued on the calling thread
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * A queued write and its acknowledgement
+     */
+    private static class QueuedSave {
+        private volatile PlayerData data;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        QueuedSave(PlayerData data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.wdp.progress.data;
+
+import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.progress.ProgressCalculator;
+import com.wdp.progress.progress.ProgressCategory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Re-weights every stored player's progress after the category weights change.
+ *
+ * Final scores are recomputed from each row's stored category scores, so no
+ * player is rescored and no Bukkit state is read. The table is walked in
+ * primary key order on a read connection, and each batch's changed rows are
+ * written in one short transaction on the database writer thread - rows whose
+ * progress is unchanged aren't touched. Players held in memory are skipped -
+ * they are rescored live and their next save overwrites the row anyway.
+ */
+public class ProgressReweighter implements Runnable {
+
+    private final WDPProgressPlugin plugin;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+
+    public ProgressReweighter(WDPProgressPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void run() {
+        // A reload during a run means rows already passed used the old weights - go round again
+        rerun.set(true);
+        while (rerun.get() && running.compareAndSet(false, true)) {
+            try {
+                rerun.set(false);
+                reweight();
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    private void reweight() {
+        try {
+            long start = System.currentTimeMillis();
+            int[] counts = reweightAll(plugin.getConfigManager().getReweightBatchSize());
+            plugin.getPlayerDataManager().rebuildLeaderboard();
+
+            plugin.getLogger().info(String.format("Re-weighted stored progress: %d of %d players changed (%d ms)",
+                counts[1], counts[0], System.currentTimeMillis() - start));
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to re-weight stored progress", e);
+        }
+    }
+
+    /**
+     * @return rows scanned and rows updated
+     */
+    private int[] reweightAll(int batchSize) throws SQLException {
+        DatabaseManager database = plugin.getDatabaseManager();
+        UuidCodec codec = database.getUuidCodec();
+        ProgressCalculator calculator = plugin.getProgressCalculator();
+        PlayerDataManager playerDataManager = plugin.getPlayerDataManager();
+
+        StringBuilder columns = new StringBuilder("uuid, current_progress, death_penalty");
+        for (ProgressCategory category : ProgressCategory.values()) {
+            columns.append(", score_").append(category.name().toLowerCase(Locale.ROOT));
+        }
+        String first = "SELECT " + columns + " FROM wdp_progress ORDER BY uuid LIMIT ?";
+        String next = "SELECT " + columns + " FROM wdp_progress WHERE uuid > ? ORDER BY uuid LIMIT ?";
+        String update = "UPDATE wdp_progress SET current_progress = ? WHERE uuid = ?";
+
+        int scanned = 0;
+        int updated = 0;
+        UUID after = null;
+        while (true) {
+            List<UUID> changedPlayers = new ArrayList<>();
+            List<Double> changedProgress = new ArrayList<>();
+            int rows = 0;
+
+            // Keyset pagination - each batch starts after the last key seen
+            try (Connection conn = database.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(after == null ? first : next)) {
+                int index = 1;
+                if (after != null) {
+                    codec.bind(stmt, index++, after);
+                }
+                stmt.setInt(index, batchSize);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        UUID uuid = codec.read(rs, "uuid");
+                        after = uuid;
+
+                        double[] scores = new double[ProgressCategory.values().length];
+                        boolean scored = false;
+                        for (ProgressCategory category : ProgressCategory.values()) {
+                            scores[category.ordinal()] = rs.getDouble(4 + category.ordinal());
+                            scored |= scores[category.ordinal()] != 0.0;
+                        }
+
+                        // Rows saved before scores were stored have nothing to re-weight
+                        if (!scored || playerDataManager.isHeldInMemory(uuid)) {
+                            continue;
+                        }
+
+                        double progress = calculator.scoreCategories(scores, rs.getDouble("death_penalty")).getFinalScore();
+                        if (progress != rs.getDouble("current_progress")) {
+                            changedPlayers.add(uuid);
+                            changedProgress.add(progress);
+                        }
+                    }
+                }
+            }
+
+            if (!changedPlayers.isEmpty()) {
+                database.write(conn -> {
+                    boolean autoCommit = conn.getAutoCommit();
+                    conn.setAutoCommit(false);
+                    try (PreparedStatement stmt = conn.prepareStatement(update)) {
+                        for (int i = 0; i < changedPlayers.size(); i++) {
+                            stmt.setDouble(1, changedProgress.get(i));
+                            codec.bind(stmt, 2, changedPlayers.get(i));
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                        conn.commit();
+                        return null;
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    } finally {
+                        conn.setAutoCommit(autoCommit);
+                    }
+                });
+            }
+
+            scanned += rows;
+            updated += changedPlayers.size();
+            if (rows < batchSize) {
+                return new int[] { scanned, updated };
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.wdp.progress.data;
+
+import com.wdp.progress.WDPProgressPlugin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned schema migrations for both SQLite and MySQL.
+ *
+ * The tables created by {@link DatabaseManager} are the baseline (version 0).
+ * Every later change is an ordered, numbered step recorded in
+ * {@code wdp_progress_schema_version} once applied, so each database runs each
+ * step exactly once. Steps check for what they add, so a database that already
+ * has a change (e.g. from an older build) is simply brought up to date.
+ *
+ * Append new steps to the end - never renumber or edit an applied step.
+ */
+public class SchemaMigrator {
+
+    public static final String VERSION_TABLE = "wdp_progress_schema_version";
+
+    private final WDPProgressPlugin plugin;
+    private final boolean mysql;
+    private final UuidCodec uuidCodec;
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator(WDPProgressPlugin plugin, boolean mysql, UuidCodec uuidCodec) {
+        this.plugin = plugin;
+        this.mysql = mysql;
+        this.uuidCodec = uuidCodec;
+        registerMigrations();
+    }
+
+    private void registerMigrations() {
+        add(1, "Covering index for per-player history reads", conn -> {
+            createIndexIfMissing(conn, HistoryCompactor.RAW_TABLE, "idx_history_uuid_timestamp", "uuid, timestamp, progress");
+            // The MySQL baseline's idx_uuid is a prefix of the new index - only a cost on every insert now
+            if (mysql && hasIndex(conn, HistoryCompactor.RAW_TABLE, "idx_uuid")) {
+                execute(conn, "DROP INDEX idx_uuid ON " + HistoryCompactor.RAW_TABLE);
+            }
+        });
+
+        add(2, "Index history by time for compaction", conn -> {
+            // MySQL tables are created with idx_timestamp already - don't index the column twice
+            if (!hasIndexOn(conn, HistoryCompactor.RAW_TABLE, "timestamp")) {
+                createIndexIfMissing(conn, HistoryCompactor.RAW_TABLE, "idx_history_timestamp", "timestamp");
+            }
+        });
+
+        add(3, "Index progress for leaderboard queries", conn ->
+            createIndexIfMissing(conn, "wdp_progress", "idx_progress_current", "current_progress"));
+
+        add(4, "Persist deaths and death penalty", conn -> {
+            addColumnIfMissing(conn, "wdp_progress", "total_deaths", "INTEGER NOT NULL DEFAULT 0", "INT NOT NULL DEFAULT 0");
+            addColumnIfMissing(conn, "wdp_progress", "death_penalty", "REAL NOT NULL DEFAULT 0", "DOUBLE NOT NULL DEFAULT 0");
+        });
+
+        add(5, "Persist category scores", conn -> {
+            for (String category : new String[] {
+                    "advancements", "experience", "equipment", "economy", "statistics", "achievements" }) {
+                addColumnIfMissing(conn, "wdp_progress", "score_" + category,
+                    "REAL NOT NULL DEFAULT 0", "DOUBLE NOT NULL DEFAULT 0");
+            }
+        });
+
+        add(6, "Graves table", conn -> {
+            execute(conn, mysql ?
+                "CREATE TABLE IF NOT EXISTS wdp_progress_graves (" +
+                "grave_id VARCHAR(36) PRIMARY KEY," +
+                "uuid " + uuidCodec.getColumnType(true) + " NOT NULL," +
+                "total_value DOUBLE NOT NULL," +
+                "recovered_value DOUBLE NOT NULL," +
+                "creation_time BIGINT NOT NULL" +
+                ")" :
+                "CREATE TABLE IF NOT EXISTS wdp_progress_graves (" +
+                "grave_id TEXT PRIMARY KEY," +
+                "uuid " + uuidCodec.getColumnType(false) + " NOT NULL," +
+                "total_value REAL NOT NULL," +
+                "recovered_value REAL NOT NULL," +
+                "creation_time INTEGER NOT NULL" +
+                ")");
+            createIndexIfMissing(conn, "wdp_progress_graves", "idx_graves_uuid", "uuid");
+        });
+
+        add(7, "Achievement ID table", conn -> execute(conn, mysql ?
+            "CREATE TABLE IF NOT EXISTS " + AchievementRegistry.TABLE + " (" +
+            "id INT PRIMARY KEY," +
+            "achievement_key VARCHAR(64) NOT NULL UNIQUE" +
+            ")" :
+            "CREATE TABLE IF NOT EXISTS " + AchievementRegistry.TABLE + " (" +
+            "id INTEGER PRIMARY KEY," +
+            "achievement_key TEXT NOT NULL UNIQUE" +
+            ")"));
+
+        // Old rows keep their JSON until they are next saved
+        add(8, "Store achievements as a bitset", conn ->
+            addColumnIfMissing(conn, "wdp_progress", "achievement_bits", "BLOB", "VARBINARY(255)"));
+
+        add(9, "Persist ender chest component scores", conn -> {
+            for (String component : new String[] { "armor", "tools", "weapons", "special" }) {
+                addColumnIfMissing(conn, "wdp_progress", "ec_" + component,
+                    "REAL NOT NULL DEFAULT 0", "DOUBLE NOT NULL DEFAULT 0");
+            }
+        });
+    }
+
+    private void add(int version, String description, Step step) {
+        migrations.add(new Migration(version, description, step));
+    }
+
+    /**
+     * Apply every migration newer than the database's current version, in order
+     */
+    public void migrate(Connection conn) throws SQLException {
+        execute(conn, mysql ?
+            "CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+            "version INT PRIMARY KEY," +
+            "description VARCHAR(255) NOT NULL," +
+            "applied_at BIGINT NOT NULL" +
+            ")" :
+            "CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+            "version INTEGER PRIMARY KEY," +
+            "description TEXT NOT NULL," +
+            "applied_at INTEGER NOT NULL" +
+            ")");
+
+        int current = getCurrentVersion(conn);
+        for (Migration migration : migrations) {
+            if (migration.version <= current) {
+                continue;
+            }
+
+            // SQLite runs DDL transactionally; MySQL commits DDL implicitly, which
+            // is why every step is written to be safely re-runnable
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                migration.step.apply(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO " + VERSION_TABLE + " (version, description, applied_at) VALUES (?, ?, ?)")) {
+                    stmt.setInt(1, migration.version);
+                    stmt.setString(2, migration.description);
+                    stmt.setLong(3, System.currentTimeMillis());
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Schema migration " + migration.version + " (" + migration.description + ") failed", e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+            plugin.getLogger().info("Applied schema migration " + migration.version + ": " + migration.description);
+        }
+    }
+
+    /**
+     * The newest migration this build knows about
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    private int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM " + VERSION_TABLE)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Step helpers
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Create an index unless one with that name already exists (MySQL has no CREATE INDEX IF NOT EXISTS)
+     */
+    private static void createIndexIfMissing(Connection conn, String table, String indexName, String columns) throws SQLException {
+        if (!hasIndex(conn, table, indexName)) {
+            execute(conn, "CREATE INDEX " + indexName + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private static boolean hasIndex(Connection conn, String table, String indexName) throws SQLException {
+        // Scoped to the connection's catalog - on MySQL a null catalog matches same-named tables in every schema
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether any index on the table starts with the column
+     */
+    private static boolean hasIndexOn(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (rs.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addColumnIfMissing(Connection conn, String table, String column,
+                                    String sqliteType, String mysqlType) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + (mysql ? mysqlType : sqliteType));
+    }
+
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
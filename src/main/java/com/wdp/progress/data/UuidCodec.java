@@ -0,0 +1,77 @@
+package com.wdp.progress.data;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * How player UUIDs are stored in key columns.
+ *
+ * TEXT is the original 36-character string. BINARY stores the 16 raw bytes
+ * (BLOB on SQLite, BINARY(16) on MySQL), less than half the key size, which
+ * keeps primary keys and indexes smaller and comparisons cheaper.
+ */
+public enum UuidCodec {
+
+    TEXT {
+        @Override
+        public String getColumnType(boolean mysql) {
+            return mysql ? "VARCHAR(36)" : "TEXT";
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+            stmt.setString(index, uuid.toString());
+        }
+
+        @Override
+        public UUID read(ResultSet rs, String column) throws SQLException {
+            String value = rs.getString(column);
+            return value != null ? UUID.fromString(value) : null;
+        }
+    },
+
+    BINARY {
+        @Override
+        public String getColumnType(boolean mysql) {
+            return mysql ? "BINARY(16)" : "BLOB";
+        }
+
+        @Override
+        public void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+            stmt.setBytes(index, ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+        }
+
+        @Override
+        public UUID read(ResultSet rs, String column) throws SQLException {
+            byte[] value = rs.getBytes(column);
+            if (value == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+    };
+
+    /**
+     * Column type for a UUID key in the given dialect
+     */
+    public abstract String getColumnType(boolean mysql);
+
+    public abstract void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException;
+
+    public abstract UUID read(ResultSet rs, String column) throws SQLException;
+
+    /**
+     * Work out which codec an existing column was created with from its declared type
+     */
+    public static UuidCodec fromColumnType(String typeName) {
+        String type = typeName != null ? typeName.toUpperCase() : "";
+        return type.contains("BLOB") || type.contains("BINARY") ? BINARY : TEXT;
+    }
+}
@@ -2,15 +2,14 @@ package com.wdp.progress.integrations;
 
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.data.PlayerData;
+import com.wdp.progress.progress.ProgressCategory;
 import org.bukkit.Material;
-import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.plugin.Plugin;
 
 import java.util.*;
@@ -31,7 +30,12 @@ import java.util.logging.Level;
  */
 public class GravesXIntegration implements Listener {
     
+    // Decay schedule: share of the grave's value assumed recovered after each delay (1, 3 and 5 minutes)
+    private static final long[] DECAY_STEP_TICKS = { 20L * 60, 20L * 60 * 3, 20L * 60 * 5 };
+    private static final double[] DECAY_STEP_SHARES = { 0.3, 0.3, 0.4 };
+    
     private final WDPProgressPlugin plugin;
+    private final Set<String> scheduledGraves = new HashSet<>();
     private boolean enabled;
     
     public GravesXIntegration(WDPProgressPlugin plugin) {
@@ -115,7 +119,7 @@ public class GravesXIntegration implements Listener {
         updateDeathPenalty(playerData);
         
         // Schedule a task to reduce penalty over time (player likely recovered items)
-        scheduleGraveDecay(player.getUniqueId(), graveId, totalValue);
+        scheduleGraveDecay(player.getUniqueId(), graveData);
         
         plugin.getLogger().info(String.format(
             "Player %s died - Grave value: %.2f (Initial penalty: %.2f points)",
@@ -126,113 +130,74 @@ public class GravesXIntegration implements Listener {
     }
     
     /**
-     * Schedule penalty reduction over time
-     * Assumes player will recover most items within 5 minutes
+     * Resume the decay of graves restored from storage (e.g. after a restart).
+     * Steps that fell due while nothing was scheduled are applied straight away.
      */
-    private void scheduleGraveDecay(UUID playerUUID, String graveId, double initialValue) {
-        // After 1 minute: assume 30% recovered
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            PlayerData data = plugin.getPlayerDataManager().getPlayerData(playerUUID);
-            if (data != null) {
-                PlayerData.GraveData grave = data.getGrave(graveId);
-                if (grave != null) {
-                    grave.addRecoveredValue(initialValue * 0.3);
-                    updateDeathPenalty(data);
-                }
-            }
-        }, 20L * 60); // 1 minute
-        
-        // After 3 minutes: assume 60% recovered
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            PlayerData data = plugin.getPlayerDataManager().getPlayerData(playerUUID);
-            if (data != null) {
-                PlayerData.GraveData grave = data.getGrave(graveId);
-                if (grave != null) {
-                    grave.addRecoveredValue(initialValue * 0.3); // Additional 30%
-                    updateDeathPenalty(data);
-                }
-            }
-        }, 20L * 60 * 3); // 3 minutes
-        
-        // After 5 minutes: assume 100% recovered, remove grave
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            PlayerData data = plugin.getPlayerDataManager().getPlayerData(playerUUID);
-            if (data != null) {
-                PlayerData.GraveData grave = data.getGrave(graveId);
-                if (grave != null) {
-                    grave.addRecoveredValue(initialValue * 0.4); // Final 40%
-                    data.removeGrave(graveId);
-                    updateDeathPenalty(data);
-                    
-                    Player player = plugin.getServer().getPlayer(playerUUID);
-                    if (player != null && player.isOnline()) {
-                        player.sendMessage("§a§l✓ §aGrave penalty fully removed - assumed items recovered!");
-                    }
-                }
+    public void resumeGraveDecay(UUID playerUUID, PlayerData data) {
+        for (PlayerData.GraveData grave : data.getActiveGraves().values()) {
+            if (!scheduledGraves.contains(grave.getGraveUUID())) {
+                scheduleGraveDecay(playerUUID, grave);
             }
-        }, 20L * 60 * 5); // 5 minutes
+        }
     }
     
     /**
-     * Calculate the value of a single item
+     * Schedule penalty reduction over time
+     * Assumes player will recover most items within 5 minutes
      */
-    private double calculateItemValue(ItemStack item) {
-        if (item == null || item.getType() == Material.AIR) {
-            return 0.0;
+    private void scheduleGraveDecay(UUID playerUUID, PlayerData.GraveData grave) {
+        String graveId = grave.getGraveUUID();
+        double initialValue = grave.getTotalItemValue();
+        long elapsedTicks = (System.currentTimeMillis() - grave.getCreationTime()) / 50L;
+        
+        // Steps already applied before a restart are worked out from what was recovered
+        double recoveredShare = initialValue > 0 ? grave.getRecoveredValue() / initialValue : 1.0;
+        double cumulativeShare = 0.0;
+        
+        scheduledGraves.add(graveId);
+        for (int step = 0; step < DECAY_STEP_TICKS.length; step++) {
+            cumulativeShare += DECAY_STEP_SHARES[step];
+            if (recoveredShare >= cumulativeShare - 0.001) {
+                continue;
+            }
+            
+            double share = DECAY_STEP_SHARES[step];
+            boolean last = step == DECAY_STEP_TICKS.length - 1;
+            long delay = Math.max(1L, DECAY_STEP_TICKS[step] - elapsedTicks);
+            plugin.getServer().getScheduler().runTaskLater(plugin,
+                () -> applyGraveDecay(playerUUID, graveId, initialValue * share, last), delay);
         }
-        
-        double value = 0.0;
-        Material material = item.getType();
-        
-        // Base material values
-        if (material.name().contains("NETHERITE")) {
-            value += 100.0;
-        } else if (material.name().contains("DIAMOND")) {
-            value += 75.0;
-        } else if (material.name().contains("GOLDEN")) {
-            value += 50.0;
-        } else if (material.name().contains("IRON")) {
-            value += 30.0;
-        } else if (material.name().contains("STONE") || material.name().contains("CHAINMAIL")) {
-            value += 15.0;
-        } else if (material.name().contains("LEATHER") || material.name().contains("WOODEN")) {
-            value += 5.0;
+    }
+    
+    private void applyGraveDecay(UUID playerUUID, String graveId, double recovered, boolean last) {
+        PlayerData data = plugin.getPlayerDataManager().getPlayerData(playerUUID);
+        if (data == null || data.getGrave(graveId) == null) {
+            scheduledGraves.remove(graveId);
+            return;
         }
         
-        // Special items
-        if (material == Material.ELYTRA) {
-            value += 150.0;
-        } else if (material == Material.TRIDENT) {
-            value += 120.0;
-        } else if (material == Material.TOTEM_OF_UNDYING) {
-            value += 200.0;
-        } else if (material == Material.NETHER_STAR) {
-            value += 250.0;
+        data.addGraveRecovery(graveId, recovered);
+        if (!last) {
+            updateDeathPenalty(data);
+            return;
         }
         
-        // Enchantment value
-        if (item.hasItemMeta() && item.getItemMeta().hasEnchants()) {
-            Map<Enchantment, Integer> enchants = item.getItemMeta().getEnchants();
-            for (Map.Entry<Enchantment, Integer> entry : enchants.entrySet()) {
-                value += entry.getValue() * 10.0; // Each enchant level = 10 points
-            }
-        }
+        // Final step: assume everything was recovered and drop the grave
+        data.removeGrave(graveId);
+        scheduledGraves.remove(graveId);
+        updateDeathPenalty(data);
         
-        // Durability factor
-        if (item.getItemMeta() instanceof Damageable) {
-            Damageable damageable = (Damageable) item.getItemMeta();
-            if (item.getType().getMaxDurability() > 0) {
-                int maxDurability = item.getType().getMaxDurability();
-                int damage = damageable.getDamage();
-                double durabilityPercent = (maxDurability - damage) / (double) maxDurability;
-                value *= durabilityPercent; // Reduce value for damaged items
-            }
+        Player player = plugin.getServer().getPlayer(playerUUID);
+        if (player != null && player.isOnline()) {
+            player.sendMessage("§a§l✓ §aGrave penalty fully removed - assumed items recovered!");
         }
-        
-        // Multiply by stack size for stackable items
-        value *= item.getAmount();
-        
-        return value;
+    }
+    
+    /**
+     * Calculate the value of a single item stack
+     */
+    private double calculateItemValue(ItemStack item) {
+        return plugin.getProgressCalculator().getItemValuationEngine().evaluateGraveValue(item);
     }
     
     /**
@@ -250,9 +215,7 @@ public class GravesXIntegration implements Listener {
         
         playerData.setCurrentDeathPenalty(totalPenalty);
         
-        // Trigger progress recalculation
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPlayerDataManager().recalculateProgress(playerData.getUUID());
-        });
+        // Only the penalty changed - no category needs rescoring
+        plugin.getPlayerDataManager().recalculateProgress(playerData.getUUID(), ProgressCategory.NONE);
     }
 }
@@ -1,13 +1,16 @@
 package com.wdp.progress.listeners;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.progress.AdvancementCatalog;
+import com.wdp.progress.progress.ProgressCategory;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerAdvancementDoneEvent;
+import org.bukkit.event.server.ServerLoadEvent;
 
 /**
- * Handles advancement completion events
+ * Handles advancement completion events and keeps the advancement catalog current
  */
 public class AdvancementListener implements Listener {
     
@@ -24,13 +27,25 @@ public class AdvancementListener implements Listener {
         }
         
         // Skip recipe advancements
-        if (event.getAdvancement().getKey().toString().contains("recipes/")) {
+        String key = event.getAdvancement().getKey().toString();
+        if (AdvancementCatalog.isRecipe(key)) {
             return;
         }
         
+        // An advancement we haven't indexed means datapacks changed under us
+        if (plugin.getProgressCalculator().getAdvancementCatalog().indexOf(key) < 0) {
+            plugin.getProgressCalculator().rebuildAdvancementCatalog();
+        }
+        
         // Trigger progress recalculation
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            plugin.getPlayerDataManager().updatePlayerProgress(event.getPlayer().getUniqueId(), true);
-        }, 10L);
+        plugin.getUpdateScheduler().markDirty(event.getPlayer().getUniqueId(), ProgressCategory.ADVANCEMENTS.bit());
+    }
+    
+    /**
+     * Datapacks are (re)loaded at startup and on /reload - re-index advancements
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerLoad(ServerLoadEvent event) {
+        plugin.getProgressCalculator().rebuildAdvancementCatalog();
     }
 }
@@ -1,6 +1,7 @@
 package com.wdp.progress.listeners;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.progress.ProgressCategory;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -24,11 +25,7 @@ public class ExperienceListener implements Listener {
             return;
         }
         
-        // Only recalculate on level ups (not level downs from death)
-        if (event.getNewLevel() > event.getOldLevel()) {
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                plugin.getPlayerDataManager().updatePlayerProgress(event.getPlayer().getUniqueId(), true);
-            }, 5L);
-        }
+        // Level downs too - levels spent on enchanting and anvils aren't picked up by periodic passes
+        plugin.getUpdateScheduler().markDirty(event.getPlayer().getUniqueId(), ProgressCategory.EXPERIENCE.bit());
     }
 }
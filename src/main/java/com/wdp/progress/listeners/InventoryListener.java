@@ -1,49 +1,152 @@
 package com.wdp.progress.listeners;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.progress.ProgressCategory;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.EntityResurrectEvent;
+import org.bukkit.event.entity.EntityShootBowEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.event.player.PlayerItemMendEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+import java.util.UUID;
 
 /**
- * Handles inventory and item events that may affect equipment score
+ * Handles inventory and item events that may affect equipment score.
+ *
+ * Every event that can change a player's items bumps their equipment generation,
+ * so recalculations skip rescanning an inventory that hasn't changed.
  */
 public class InventoryListener implements Listener {
     
     private final WDPProgressPlugin plugin;
-    private long lastUpdate = 0;
-    private static final long UPDATE_COOLDOWN = 5000; // 5 seconds cooldown
     
     public InventoryListener(WDPProgressPlugin plugin) {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player) {
+            equipmentChanged(event.getWhoClicked().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player) {
+            equipmentChanged(event.getWhoClicked().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player) {
+            equipmentChanged(event.getEntity().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDrop(PlayerDropItemEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDamage(PlayerItemDamageEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemMend(PlayerItemMendEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onResurrect(EntityResurrectEvent event) {
+        // A totem was used up
+        if (event.getEntity() instanceof Player) {
+            equipmentChanged(event.getEntity().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        // Right-click use of a held item, e.g. equipping armor, throwing pearls, firing rockets.
+        // Not ignoreCancelled - a cancelled block interaction can still use the item
+        if (event.hasItem() && (event.getAction() == Action.RIGHT_CLICK_AIR ||
+                event.getAction() == Action.RIGHT_CLICK_BLOCK)) {
+            equipmentChanged(event.getPlayer().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsume(PlayerItemConsumeEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onShootBow(EntityShootBowEvent event) {
+        // Arrows or rockets used up
+        if (event.getEntity() instanceof Player) {
+            equipmentChanged(event.getEntity().getUniqueId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        // Inventory was dropped on death (unless kept)
+        equipmentChanged(event.getPlayer().getUniqueId());
+    }
+    
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryClose(InventoryCloseEvent event) {
         if (!plugin.getConfigManager().isEquipmentEnabled()) {
             return;
         }
         
-        // Throttle updates to prevent spam
-        long now = System.currentTimeMillis();
-        if (now - lastUpdate < UPDATE_COOLDOWN) {
-            return;
-        }
-        lastUpdate = now;
-        
         // Trigger progress recalculation after inventory changes
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            if (event.getPlayer() instanceof org.bukkit.entity.Player) {
-                org.bukkit.entity.Player player = (org.bukkit.entity.Player) event.getPlayer();
-                if (player.isOnline()) {
-                    plugin.getPlayerDataManager().updatePlayerProgress(player.getUniqueId(), true);
-                }
+        if (event.getPlayer() instanceof org.bukkit.entity.Player) {
+            equipmentChanged(event.getPlayer().getUniqueId());
+            
+            // The ender chest is only rescored when one is closed
+            if (event.getInventory().getType() == InventoryType.ENDER_CHEST) {
+                Player player = (Player) event.getPlayer();
+                plugin.getProgressCalculator().refreshEnderChestScores(player,
+                    plugin.getPlayerDataManager().getPlayerData(player.getUniqueId()));
             }
-        }, 20L);
+            plugin.getUpdateScheduler().markDirty(event.getPlayer().getUniqueId(), ProgressCategory.EQUIPMENT.bit());
+        }
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -53,8 +156,11 @@ public class InventoryListener implements Listener {
         }
         
         // Item broke - recalculate equipment score
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            plugin.getPlayerDataManager().updatePlayerProgress(event.getPlayer().getUniqueId(), true);
-        }, 10L);
+        equipmentChanged(event.getPlayer().getUniqueId());
+        plugin.getUpdateScheduler().markDirty(event.getPlayer().getUniqueId(), ProgressCategory.EQUIPMENT.bit());
+    }
+    
+    private void equipmentChanged(UUID uuid) {
+        plugin.getPlayerDataManager().markEquipmentChanged(uuid);
     }
 }
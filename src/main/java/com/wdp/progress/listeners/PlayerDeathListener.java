@@ -1,6 +1,7 @@
 package com.wdp.progress.listeners;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.progress.ProgressCategory;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -47,9 +48,7 @@ public class PlayerDeathListener implements Listener {
         // If GravesX is not available, apply a basic penalty
         if (plugin.getGravesXIntegration() == null || !plugin.getGravesXIntegration().isEnabled()) {
             // Fallback: small temporary penalty
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                plugin.getPlayerDataManager().recalculateProgress(event.getEntity().getUniqueId());
-            });
+            plugin.getPlayerDataManager().recalculateProgress(event.getEntity().getUniqueId(), ProgressCategory.NONE);
         }
         // Otherwise, GravesXIntegration will handle the smart penalty calculation
     }
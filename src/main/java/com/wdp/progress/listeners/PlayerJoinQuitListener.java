@@ -2,9 +2,14 @@ package com.wdp.progress.listeners;
 
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.data.PlayerData;
+import com.wdp.progress.integrations.GravesXIntegration;
+import com.wdp.progress.progress.ProgressCategory;
+import org.bukkit.Statistic;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
@@ -19,9 +24,19 @@ public class PlayerJoinQuitListener implements Listener {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Load off the main thread so the join doesn't block on the database
+        plugin.getPlayerDataManager().preloadPlayerData(event.getUniqueId());
+    }
+    
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
-        // Load player data
+        // Load player data (normally staged at pre-login; blocking load otherwise)
         PlayerData data = plugin.getPlayerDataManager().loadPlayerData(event.getPlayer().getUniqueId());
         
         // Set first join if needed
@@ -32,6 +47,20 @@ public class PlayerJoinQuitListener implements Listener {
         // Update last seen
         data.setLastSeen(System.currentTimeMillis());
         
+        // Verify stored statistic counters before any playtime accrues (seeds them otherwise)
+        if (plugin.getConfigManager().isStatisticsEnabled()) {
+            plugin.getProgressCalculator().prepareStatisticCounters(event.getPlayer(), data);
+        }
+        
+        // Score the ender chest now; after this it is only rescored when closed
+        plugin.getProgressCalculator().refreshEnderChestScores(event.getPlayer(), data);
+        
+        // Pick up grave decay where it left off (graves are persisted, their tasks aren't)
+        GravesXIntegration graves = plugin.getGravesXIntegration();
+        if (graves != null && graves.isEnabled()) {
+            graves.resumeGraveDecay(event.getPlayer().getUniqueId(), data);
+        }
+        
         // Grant first join achievement if enabled
         if (plugin.getConfigManager().isAchievementsEnabled()) {
             if (!data.hasAchievement("first_join")) {
@@ -39,15 +68,23 @@ public class PlayerJoinQuitListener implements Listener {
             }
         }
         
-        // Trigger initial progress calculation after a short delay
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            plugin.getPlayerDataManager().updatePlayerProgress(event.getPlayer().getUniqueId(), true);
-        }, 20L); // 1 second delay
+        // Trigger initial progress calculation once the join settles
+        plugin.getUpdateScheduler().markDirty(event.getPlayer().getUniqueId(), ProgressCategory.ALL);
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
+        // Stamp the counters so the seed scan can be skipped on rejoin
+        Player player = event.getPlayer();
+        PlayerData data = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
+        if (data != null) {
+            data.setLastSeen(System.currentTimeMillis());
+            data.stampStatisticCounters(player.getStatistic(Statistic.PLAY_ONE_MINUTE),
+                player.getStatistic(Statistic.MOB_KILLS));
+        }
+        
         // Save and unload player data
+        plugin.getUpdateScheduler().cancel(player.getUniqueId());
         plugin.getPlayerDataManager().unloadPlayerData(event.getPlayer().getUniqueId());
     }
 }
@@ -1,6 +1,10 @@
 package com.wdp.progress.listeners;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.data.PlayerData;
+import com.wdp.progress.progress.ProgressCategory;
+import com.wdp.progress.progress.StatisticProbeTable;
+import org.bukkit.Statistic;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -13,8 +17,6 @@ import org.bukkit.event.player.PlayerStatisticIncrementEvent;
 public class StatisticsListener implements Listener {
     
     private final WDPProgressPlugin plugin;
-    private long lastUpdate = 0;
-    private static final long UPDATE_COOLDOWN = 10000; // 10 seconds cooldown
     
     public StatisticsListener(WDPProgressPlugin plugin) {
         this.plugin = plugin;
@@ -26,18 +28,34 @@ public class StatisticsListener implements Listener {
             return;
         }
         
-        // Throttle updates to prevent spam from rapid statistic changes
-        long now = System.currentTimeMillis();
-        if (now - lastUpdate < UPDATE_COOLDOWN) {
+        // Keep the running kill/mine counters current
+        applyCounterDelta(event);
+        
+        // Rapid statistic changes are coalesced by the update scheduler
+        plugin.getUpdateScheduler().markDirty(event.getPlayer().getUniqueId(), ProgressCategory.STATISTICS.bit());
+    }
+    
+    /**
+     * Apply a MINE_BLOCK or KILL_ENTITY increment to the player's running counters
+     */
+    private void applyCounterDelta(PlayerStatisticIncrementEvent event) {
+        Statistic statistic = event.getStatistic();
+        if (statistic != Statistic.MINE_BLOCK && statistic != Statistic.KILL_ENTITY) {
             return;
         }
-        lastUpdate = now;
         
-        // Trigger progress recalculation
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            if (event.getPlayer().isOnline()) {
-                plugin.getPlayerDataManager().updatePlayerProgress(event.getPlayer().getUniqueId(), true);
-            }
-        }, 100L); // 5 second delay to batch multiple stat changes
+        PlayerData data = plugin.getPlayerDataManager().getPlayerData(event.getPlayer().getUniqueId());
+        if (data == null || !data.areStatisticCountersSeeded()) {
+            return; // The seed scan will pick this increment up
+        }
+        
+        int delta = event.getNewValue() - event.getPreviousValue();
+        StatisticProbeTable table = plugin.getProgressCalculator().getStatisticProbeTable(event.getPlayer());
+        
+        if (statistic == Statistic.MINE_BLOCK && event.getMaterial() != null) {
+            data.addBlocksMined(delta, table.getBlockBonus(event.getMaterial()));
+        } else if (statistic == Statistic.KILL_ENTITY && event.getEntityType() != null) {
+            data.addMobKills(delta, table.getMobBonus(event.getEntityType()));
+        }
     }
 }
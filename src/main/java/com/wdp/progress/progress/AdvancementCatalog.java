@@ -0,0 +1,168 @@
+package com.wdp.progress.progress;
+
+import com.wdp.progress.config.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.advancement.Advancement;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, dense index of the server's scorable advancements.
+ *
+ * Built once at startup and whenever datapacks or the config are reloaded. Each
+ * non-recipe advancement gets an index with its category and milestone bonus
+ * resolved up front, so scoring a player is a single pass over a bitset.
+ */
+public final class AdvancementCatalog {
+
+    private final Advancement[] advancements;
+    private final Map<String, Integer> indexByKey;
+    private final int[] categoryOf;
+    private final double[] milestoneBonus;
+
+    private final String[] categoryNames;
+    private final double[] categoryWeights;
+    private final int[] categoryTotals;
+
+    private AdvancementCatalog(Advancement[] advancements, Map<String, Integer> indexByKey,
+                               int[] categoryOf, double[] milestoneBonus,
+                               String[] categoryNames, double[] categoryWeights, int[] categoryTotals) {
+        this.advancements = advancements;
+        this.indexByKey = indexByKey;
+        this.categoryOf = categoryOf;
+        this.milestoneBonus = milestoneBonus;
+        this.categoryNames = categoryNames;
+        this.categoryWeights = categoryWeights;
+        this.categoryTotals = categoryTotals;
+    }
+
+    /**
+     * Build a catalog from the server's current advancements and the configured
+     * category weights and milestones. Must be called from the main thread.
+     */
+    public static AdvancementCatalog build(ConfigManager config) {
+        // Configured categories get dense ordinals; anything else is unscored (-1)
+        Map<String, Double> weights = config.getAdvancementCategoryWeights();
+        String[] categoryNames = weights.keySet().toArray(new String[0]);
+        double[] categoryWeights = new double[categoryNames.length];
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        for (int i = 0; i < categoryNames.length; i++) {
+            categoryWeights[i] = weights.get(categoryNames[i]);
+            categoryIndex.put(categoryNames[i], i);
+        }
+
+        List<Advancement> scorable = new ArrayList<>();
+        Iterator<Advancement> advIterator = Bukkit.getServer().advancementIterator();
+        while (advIterator.hasNext()) {
+            Advancement advancement = advIterator.next();
+            if (!isRecipe(advancement.getKey().toString())) {
+                scorable.add(advancement);
+            }
+        }
+
+        int size = scorable.size();
+        Advancement[] advancements = scorable.toArray(new Advancement[0]);
+        Map<String, Integer> indexByKey = new HashMap<>(size * 2);
+        int[] categoryOf = new int[size];
+        double[] milestoneBonus = new double[size];
+        int[] categoryTotals = new int[categoryNames.length];
+
+        for (int i = 0; i < size; i++) {
+            String key = advancements[i].getKey().toString();
+            indexByKey.put(key, i);
+            categoryOf[i] = categoryIndex.getOrDefault(determineCategory(key), -1);
+            milestoneBonus[i] = Math.max(0.0, config.getAdvancementMilestoneBonus(key));
+            if (categoryOf[i] >= 0) {
+                categoryTotals[categoryOf[i]]++;
+            }
+        }
+
+        return new AdvancementCatalog(advancements, indexByKey, categoryOf, milestoneBonus,
+            categoryNames, categoryWeights, categoryTotals);
+    }
+
+    /**
+     * Recipe unlocks are advancements too, but they say nothing about progression
+     */
+    public static boolean isRecipe(String key) {
+        return key.contains("recipes/");
+    }
+
+    /**
+     * Determine which category an advancement belongs to
+     */
+    public static String determineCategory(String key) {
+        if (key.contains("story/") || key.contains("minecraft:story")) {
+            return "story";
+        } else if (key.contains("nether/") || key.contains("minecraft:nether")) {
+            return "nether";
+        } else if (key.contains("end/") || key.contains("minecraft:end")) {
+            return "end";
+        } else if (key.contains("adventure/") || key.contains("minecraft:adventure")) {
+            return "adventure";
+        } else if (key.contains("husbandry/") || key.contains("minecraft:husbandry")) {
+            return "husbandry";
+        }
+        return "other";
+    }
+
+    public int size() {
+        return advancements.length;
+    }
+
+    public Advancement getAdvancement(int index) {
+        return advancements[index];
+    }
+
+    /**
+     * @return the dense index for a key, or -1 if the catalog doesn't know it
+     */
+    public int indexOf(String key) {
+        Integer index = indexByKey.get(key);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Score a completion bitset built against this catalog (0-100)
+     *
+     * Each category contributes its completion percentage by weight; categories
+     * with no advancements on this server are left out of the weighting.
+     * Milestone bonus points are added on top, capped at 20.
+     */
+    public double score(BitSet completed) {
+        int[] categoryCounts = new int[categoryNames.length];
+        double milestones = 0.0;
+
+        for (int i = completed.nextSetBit(0); i >= 0 && i < advancements.length; i = completed.nextSetBit(i + 1)) {
+            int category = categoryOf[i];
+            if (category >= 0) {
+                categoryCounts[category]++;
+            }
+            milestones += milestoneBonus[i];
+        }
+
+        double totalCategoryScore = 0.0;
+        double totalCategoryWeight = 0.0;
+        for (int c = 0; c < categoryNames.length; c++) {
+            if (categoryTotals[c] == 0) {
+                continue;
+            }
+            double categoryPercent = (double) categoryCounts[c] / categoryTotals[c] * 100.0;
+            totalCategoryScore += categoryPercent * categoryWeights[c];
+            totalCategoryWeight += categoryWeights[c];
+        }
+
+        // Normalize to 0-100 scale
+        double baseScore = totalCategoryWeight > 0 ? totalCategoryScore / totalCategoryWeight : 0.0;
+
+        // Add milestone bonus (capped at 20% of total score)
+        double bonusScore = Math.min(milestones, 20.0);
+
+        return Math.min(100.0, baseScore + bonusScore);
+    }
+}
@@ -0,0 +1,141 @@
+package com.wdp.progress.progress;
+
+import org.bukkit.enchantments.Enchantment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache of item scores, shared by every player.
+ *
+ * An item's score depends only on its material, damage and enchantments, so
+ * those make up the fingerprint - identical items (e.g. every unenchanted
+ * diamond sword) are scored once. Scoring runs on all the calculation workers
+ * at once, so the cache is split into stripes by fingerprint hash, each its own
+ * LRU with its own lock, and workers only contend when they hit the same stripe.
+ */
+public class ItemScoreCache {
+
+    private static final int STRIPES = 16;
+
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ItemScoreCache(int capacity) {
+        this.capacity = capacity;
+        // Spread the capacity over the stripes, the first ones taking any remainder
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity / STRIPES + (i < capacity % STRIPES ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return the cached score, or null on a miss
+     */
+    public Double get(Fingerprint fingerprint) {
+        Stripe stripe = stripeFor(fingerprint);
+        Double score;
+        synchronized (stripe) {
+            score = stripe.get(fingerprint);
+        }
+        (score != null ? hits : misses).increment();
+        return score;
+    }
+
+    public void put(Fingerprint fingerprint, double score) {
+        Stripe stripe = stripeFor(fingerprint);
+        if (stripe.capacity > 0) {
+            synchronized (stripe) {
+                stripe.put(fingerprint, score);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Share of lookups served from the cache (0-1)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total > 0 ? (double) h / total : 0.0;
+    }
+
+    private Stripe stripeFor(Fingerprint fingerprint) {
+        int hash = fingerprint.hash;
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * One stripe's entries: access-ordered, eldest first
+     */
+    private static class Stripe extends LinkedHashMap<Fingerprint, Double> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Fingerprint, Double> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * What an item's score depends on
+     */
+    public static final class Fingerprint {
+        private final int material;
+        private final int damage;
+        private final Map<Enchantment, Integer> enchantments;
+        private final int hash;
+
+        public Fingerprint(int material, int damage, Map<Enchantment, Integer> enchantments) {
+            this.material = material;
+            this.damage = damage;
+            this.enchantments = enchantments;
+            this.hash = 31 * (31 * material + damage) + enchantments.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Fingerprint)) return false;
+            Fingerprint other = (Fingerprint) o;
+            return hash == other.hash && material == other.material && damage == other.damage &&
+                enchantments.equals(other.enchantments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.wdp.progress.progress;
+
+import com.wdp.progress.config.ConfigManager;
+import org.bukkit.Material;
+import org.bukkit.Registry;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable item valuation tables shared by equipment scoring, grave values and
+ * the equipment menu.
+ *
+ * Built once at startup and whenever the config is reloaded. Every material's
+ * equipment component, tier score and special score is resolved up front into
+ * arrays indexed by {@link Material#ordinal()}, and enchantment weights are
+ * keyed by {@link Enchantment}, so valuing an item never parses a name.
+ * Scores of items that carry meta are memoized in an {@link ItemScoreCache}
+ * that lives as long as the engine, so a reload starts it afresh.
+ *
+ * Grave values keep their own fixed table (see {@link #evaluateGraveValue}),
+ * so the death penalty's decay thresholds don't move with the equipment config.
+ */
+public final class ItemValuationEngine {
+
+    public static final int NONE = -1;
+    public static final int ARMOR = 0;
+    public static final int TOOLS = 1;
+    public static final int WEAPONS = 2;
+    public static final int SPECIAL = 3;
+
+    private static final String[] COMPONENT_NAMES = { "armor", "tools", "weapons", "special" };
+
+    // Grave value points per enchantment level
+    private static final double GRAVE_ENCHANTMENT_VALUE = 10.0;
+
+    private final byte[] componentOf;
+    private final double[] baseScore;
+    private final double[] specialScore;
+    private final double[] graveValue;
+    private final double[] componentWeights;
+
+    private final Map<Enchantment, Double> enchantmentWeights;
+    private final double enchantmentBaseMultiplier;
+    private final int durabilityThreshold;
+    private final double lowDurabilityPenalty;
+
+    private final ItemScoreCache scoreCache;
+
+    private ItemValuationEngine(byte[] componentOf, double[] baseScore, double[] specialScore,
+                                double[] graveValue, double[] componentWeights, Map<Enchantment, Double> enchantmentWeights,
+                                double enchantmentBaseMultiplier, int durabilityThreshold,
+                                double lowDurabilityPenalty, ItemScoreCache scoreCache) {
+        this.componentOf = componentOf;
+        this.baseScore = baseScore;
+        this.specialScore = specialScore;
+        this.graveValue = graveValue;
+        this.componentWeights = componentWeights;
+        this.enchantmentWeights = enchantmentWeights;
+        this.enchantmentBaseMultiplier = enchantmentBaseMultiplier;
+        this.durabilityThreshold = durabilityThreshold;
+        this.lowDurabilityPenalty = lowDurabilityPenalty;
+        this.scoreCache = scoreCache;
+    }
+
+    /**
+     * Build the tables from the configured material, special item and enchantment scores
+     */
+    public static ItemValuationEngine build(ConfigManager config) {
+        Material[] materials = Material.values();
+        byte[] componentOf = new byte[materials.length];
+        double[] baseScore = new double[materials.length];
+        double[] specialScore = new double[materials.length];
+        double[] graveValue = new double[materials.length];
+
+        for (Material material : materials) {
+            int i = material.ordinal();
+            String name = material.name();
+            specialScore[i] = config.getSpecialItemScore(name);
+            graveValue[i] = baseGraveValue(name);
+            baseScore[i] = config.getMaterialScore(extractMaterialType(name));
+            componentOf[i] = (byte) (specialScore[i] > 0 ? SPECIAL : categorize(name));
+        }
+
+        double[] componentWeights = new double[COMPONENT_NAMES.length];
+        for (int c = 0; c < COMPONENT_NAMES.length; c++) {
+            componentWeights[c] = config.getEquipmentComponentWeight(COMPONENT_NAMES[c]);
+        }
+
+        Map<Enchantment, Double> enchantmentWeights = new HashMap<>();
+        for (Enchantment enchantment : Registry.ENCHANTMENT) {
+            enchantmentWeights.put(enchantment, config.getEnchantmentValue(enchantment.getKey().getKey()));
+        }
+
+        return new ItemValuationEngine(componentOf, baseScore, specialScore, graveValue, componentWeights,
+            enchantmentWeights, config.getEnchantmentBaseMultiplier(),
+            config.getDurabilityMinimumThreshold(), config.getLowDurabilityPenalty(),
+            new ItemScoreCache(config.getItemScoreCacheSize()));
+    }
+
+    /**
+     * Equipment component of a material, or {@link #NONE} if it isn't scored as equipment
+     */
+    public int getComponent(Material material) {
+        return componentOf[material.ordinal()];
+    }
+
+    public static int getComponentCount() {
+        return COMPONENT_NAMES.length;
+    }
+
+    public static String getComponentName(int component) {
+        return COMPONENT_NAMES[component];
+    }
+
+    public double getComponentWeight(int component) {
+        return componentWeights[component];
+    }
+
+    /**
+     * Score a single item (ignoring stack size): its special score if it has one,
+     * otherwise its tier score scaled by enchantments and durability
+     */
+    public double evaluate(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return 0.0;
+        }
+
+        int ordinal = item.getType().ordinal();
+        if (specialScore[ordinal] > 0) {
+            return specialScore[ordinal];
+        }
+
+        double score = baseScore[ordinal];
+        if (score == 0.0 || !item.hasItemMeta()) {
+            return score;
+        }
+
+        // Read straight off the stack - getItemMeta() copies the whole meta, which a hit never needs
+        @SuppressWarnings("deprecation")
+        int damage = item.getDurability();
+        Map<Enchantment, Integer> enchantments = item.getEnchantments();
+
+        ItemScoreCache.Fingerprint fingerprint = new ItemScoreCache.Fingerprint(ordinal, damage, enchantments);
+        Double cached = scoreCache.get(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (!enchantments.isEmpty()) {
+            score *= getEnchantmentMultiplier(enchantments);
+        }
+
+        int maxDurability = item.getType().getMaxDurability();
+        if (maxDurability > 0) {
+            double durabilityPercent = (double) (maxDurability - damage) / maxDurability * 100.0;
+            if (durabilityPercent < durabilityThreshold) {
+                score *= lowDurabilityPenalty;
+            }
+        }
+
+        scoreCache.put(fingerprint, score);
+        return score;
+    }
+
+    /**
+     * Value of a stack lost in a grave: a fixed value for the material, plus 10
+     * per enchantment level, scaled by remaining durability and stack size
+     */
+    public double evaluateGraveValue(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return 0.0;
+        }
+
+        double value = graveValue[item.getType().ordinal()];
+        if (item.hasItemMeta()) {
+            for (int level : item.getEnchantments().values()) {
+                value += level * GRAVE_ENCHANTMENT_VALUE;
+            }
+
+            int maxDurability = item.getType().getMaxDurability();
+            if (maxDurability > 0) {
+                @SuppressWarnings("deprecation")
+                int damage = item.getDurability();
+                value *= (maxDurability - damage) / (double) maxDurability;
+            }
+        }
+        return value * item.getAmount();
+    }
+
+    public ItemScoreCache getScoreCache() {
+        return scoreCache;
+    }
+
+    /**
+     * Multiplier for a set of enchantments: 1 + base multiplier x level x weight for each
+     */
+    public double getEnchantmentMultiplier(Map<Enchantment, Integer> enchantments) {
+        double multiplier = 1.0;
+        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+            // Enchantments registered after the build (e.g. by a datapack) get the default weight
+            double weight = enchantmentWeights.getOrDefault(entry.getKey(), 1.0);
+            multiplier += enchantmentBaseMultiplier * entry.getValue() * weight;
+        }
+        return multiplier;
+    }
+
+    private static int categorize(String name) {
+        if (name.endsWith("_HELMET") || name.endsWith("_CHESTPLATE") ||
+            name.endsWith("_LEGGINGS") || name.endsWith("_BOOTS")) {
+            return ARMOR;
+        }
+        if (name.endsWith("_PICKAXE") || name.endsWith("_AXE") ||
+            name.endsWith("_SHOVEL") || name.endsWith("_HOE")) {
+            return TOOLS;
+        }
+        if (name.endsWith("_SWORD") || name.equals("BOW") ||
+            name.equals("CROSSBOW") || name.equals("TRIDENT")) {
+            return WEAPONS;
+        }
+        if (name.equals("ELYTRA") || name.equals("SHIELD") || name.equals("TOTEM_OF_UNDYING")) {
+            return SPECIAL;
+        }
+        return NONE;
+    }
+
+    /**
+     * Grave value of a material before enchantments and durability
+     */
+    private static double baseGraveValue(String name) {
+        double value = 0.0;
+        if (name.contains("NETHERITE")) {
+            value += 100.0;
+        } else if (name.contains("DIAMOND")) {
+            value += 75.0;
+        } else if (name.contains("GOLDEN")) {
+            value += 50.0;
+        } else if (name.contains("IRON")) {
+            value += 30.0;
+        } else if (name.contains("STONE") || name.contains("CHAINMAIL")) {
+            value += 15.0;
+        } else if (name.contains("LEATHER") || name.contains("WOODEN")) {
+            value += 5.0;
+        }
+
+        switch (name) {
+            case "ELYTRA": value += 150.0; break;
+            case "TRIDENT": value += 120.0; break;
+            case "TOTEM_OF_UNDYING": value += 200.0; break;
+            case "NETHER_STAR": value += 250.0; break;
+            default: break;
+        }
+        return value;
+    }
+
+    /**
+     * Material tier of an item name (e.g. "DIAMOND" from "DIAMOND_SWORD")
+     */
+    private static String extractMaterialType(String name) {
+        if (name.startsWith("NETHERITE_")) return "NETHERITE";
+        if (name.startsWith("DIAMOND_")) return "DIAMOND";
+        if (name.startsWith("IRON_")) return "IRON";
+        if (name.startsWith("GOLDEN_")) return "GOLDEN";
+        if (name.startsWith("STONE_")) return "STONE";
+        if (name.startsWith("WOODEN_") || name.startsWith("WOOD_")) return "WOOD";
+        if (name.startsWith("LEATHER_")) return "LEATHER";
+        if (name.startsWith("CHAINMAIL_")) return "CHAINMAIL";
+        return "UNKNOWN";
+    }
+}
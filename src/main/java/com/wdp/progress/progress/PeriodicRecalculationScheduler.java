@@ -0,0 +1,95 @@
+package com.wdp.progress.progress;
+
+import com.wdp.progress.WDPProgressPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spreads the periodic recalculation of online players across the whole
+ * recalculation interval instead of doing everyone in one tick.
+ *
+ * At the start of each cycle every online player is queued. Each tick takes an
+ * even share of what is left, stopping early once the per-tick time budget is
+ * spent; anything not reached carries over to the next tick (and, if need be,
+ * into the next cycle ahead of the newly queued players).
+ */
+public class PeriodicRecalculationScheduler {
+
+    private final WDPProgressPlugin plugin;
+    private final ArrayDeque<UUID> queue = new ArrayDeque<>();
+    private final Set<UUID> queued = new HashSet<>();
+    private long cycleTicks;
+    private long tickInCycle;
+    private BukkitTask task;
+
+    public PeriodicRecalculationScheduler(WDPProgressPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start (or restart with the current config) the per-tick task
+     */
+    public void start() {
+        stop();
+        cycleTicks = Math.max(1L, plugin.getConfigManager().getRecalculationInterval() * 20L);
+        tickInCycle = 0;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+        queued.clear();
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void tick() {
+        if (tickInCycle >= cycleTicks) {
+            tickInCycle = 0;
+        }
+        if (tickInCycle == 0) {
+            // New cycle - leftovers stay at the front of the queue
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (queued.add(player.getUniqueId())) {
+                    queue.addLast(player.getUniqueId());
+                }
+            }
+        }
+
+        long ticksLeft = cycleTicks - tickInCycle;
+        tickInCycle++;
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        int quota = (int) Math.min(queue.size(), (queue.size() + ticksLeft - 1) / ticksLeft);
+        long budgetNanos = (long) (plugin.getConfigManager().getRecalculationTickBudget() * 1_000_000L);
+        long start = System.nanoTime();
+
+        for (int done = 0; done < quota && !queue.isEmpty(); done++) {
+            UUID uuid = queue.pollFirst();
+            queued.remove(uuid);
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null && player.isOnline()) {
+                plugin.getPlayerDataManager().periodicUpdate(uuid);
+            }
+
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.wdp.progress.progress;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable copy of everything the progress calculation reads from a player.
+ *
+ * Snapshots are captured on the main thread by {@link ProgressCalculator#captureSnapshot}
+ * and can then be scored on any thread - nothing in here references live Bukkit state.
+ */
+public final class PlayerSnapshot {
+
+    private final UUID uuid;
+    private final String playerName;
+    private final long capturedAt;
+
+    // Categories captured for rescoring; the rest use cachedScores
+    private final int dirtyMask;
+    private final double[] cachedScores;
+
+    // Advancements (bit i is set if catalog entry i is done)
+    private final AdvancementCatalog advancementCatalog;
+    private final BitSet completedAdvancements;
+
+    // Experience & economy
+    private final int level;
+    private final boolean hasEconomy;
+    private final double balance;
+
+    // Statistic totals (kill/mine bonuses are already weighted)
+    private final long mobKillCount;
+    private final double mobKillBonus;
+    private final long blocksMinedCount;
+    private final double blocksMinedBonus;
+    private final long distanceTraveledCm;
+    private final int playTimeTicks;
+
+    // Copied item stacks
+    private final ItemStack[] armorContents;
+    private final ItemStack[] inventoryContents;
+
+    // Equipment generation at capture; inventory scores reused from that generation
+    // (null when the contents were copied to be rescanned)
+    private final long equipmentGeneration;
+    private final double[] inventoryComponentScores;
+
+    // Ender chest scores, refreshed only when the ender chest is closed or on join
+    private final double[] enderChestComponentScores;
+
+    // Plugin-side data
+    private final Set<String> completedAchievements;
+    private final double deathPenalty;
+
+    PlayerSnapshot(UUID uuid, String playerName, int dirtyMask, double[] cachedScores,
+                   AdvancementCatalog advancementCatalog, BitSet completedAdvancements,
+                   int level, boolean hasEconomy, double balance,
+                   long mobKillCount, double mobKillBonus, long blocksMinedCount, double blocksMinedBonus,
+                   long distanceTraveledCm, int playTimeTicks,
+                   ItemStack[] armorContents, ItemStack[] inventoryContents,
+                   long equipmentGeneration, double[] inventoryComponentScores, double[] enderChestComponentScores,
+                   Set<String> completedAchievements, double deathPenalty) {
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.capturedAt = System.currentTimeMillis();
+        this.dirtyMask = dirtyMask;
+        this.cachedScores = cachedScores;
+        this.advancementCatalog = advancementCatalog;
+        this.completedAdvancements = completedAdvancements;
+        this.level = level;
+        this.hasEconomy = hasEconomy;
+        this.balance = balance;
+        this.mobKillCount = mobKillCount;
+        this.mobKillBonus = mobKillBonus;
+        this.blocksMinedCount = blocksMinedCount;
+        this.blocksMinedBonus = blocksMinedBonus;
+        this.distanceTraveledCm = distanceTraveledCm;
+        this.playTimeTicks = playTimeTicks;
+        this.armorContents = armorContents;
+        this.inventoryContents = inventoryContents;
+        this.equipmentGeneration = equipmentGeneration;
+        this.inventoryComponentScores = inventoryComponentScores;
+        this.enderChestComponentScores = enderChestComponentScores;
+        this.completedAchievements = Collections.unmodifiableSet(completedAchievements);
+        this.deathPenalty = deathPenalty;
+    }
+
+    public UUID getUUID() { return uuid; }
+    public String getPlayerName() { return playerName; }
+    public long getCapturedAt() { return capturedAt; }
+
+    public int getDirtyMask() { return dirtyMask; }
+    public boolean isDirty(ProgressCategory category) { return category.isIn(dirtyMask); }
+    public double getCachedScore(ProgressCategory category) { return cachedScores[category.ordinal()]; }
+
+    public AdvancementCatalog getAdvancementCatalog() { return advancementCatalog; }
+    public BitSet getCompletedAdvancements() { return (BitSet) completedAdvancements.clone(); }
+
+    public int getLevel() { return level; }
+    public boolean hasEconomy() { return hasEconomy; }
+    public double getBalance() { return balance; }
+
+    public long getMobKillCount() { return mobKillCount; }
+    public double getMobKillBonus() { return mobKillBonus; }
+    public long getBlocksMinedCount() { return blocksMinedCount; }
+    public double getBlocksMinedBonus() { return blocksMinedBonus; }
+    public long getDistanceTraveledCm() { return distanceTraveledCm; }
+    public int getPlayTimeTicks() { return playTimeTicks; }
+
+    public ItemStack[] getArmorContents() { return armorContents; }
+    public ItemStack[] getInventoryContents() { return inventoryContents; }
+
+    public long getEquipmentGeneration() { return equipmentGeneration; }
+    public double[] getInventoryComponentScores() { return inventoryComponentScores; }
+    public double[] getEnderChestComponentScores() { return enderChestComponentScores; }
+
+    public Set<String> getCompletedAchievements() { return completedAchievements; }
+    public double getDeathPenalty() { return deathPenalty; }
+}
@@ -3,19 +3,14 @@ package com.wdp.progress.progress;
 import com.wdp.progress.WDPProgressPlugin;
 import com.wdp.progress.config.ConfigManager;
 import com.wdp.progress.data.PlayerData;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Statistic;
-import org.bukkit.advancement.Advancement;
 import org.bukkit.advancement.AdvancementProgress;
-import org.bukkit.enchantments.Enchantment;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.Damageable;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
@@ -51,10 +46,21 @@ public class ProgressCalculator {
     private double statisticsWeight;
     private double achievementsWeight;
     
+    // Scorable advancements (rebuilt on datapack or config reload)
+    private volatile AdvancementCatalog advancementCatalog;
+    
+    // Material and enchantment values (rebuilt on config reload)
+    private volatile ItemValuationEngine itemValuationEngine;
+    
+    // Valid typed-statistic arguments (built lazily against the first online player)
+    private volatile StatisticProbeTable statisticProbeTable;
+    
     public ProgressCalculator(WDPProgressPlugin plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfigManager();
         loadWeights();
+        rebuildAdvancementCatalog();
+        itemValuationEngine = ItemValuationEngine.build(config);
     }
     
     /**
@@ -62,6 +68,47 @@ public class ProgressCalculator {
      */
     public void reloadWeights() {
         loadWeights();
+        rebuildAdvancementCatalog();
+        itemValuationEngine = ItemValuationEngine.build(config);
+        statisticProbeTable = null; // Bonuses may have changed
+    }
+    
+    /**
+     * Rebuild the advancement catalog from the server's current advancements.
+     * Must be called from the main thread.
+     */
+    public void rebuildAdvancementCatalog() {
+        advancementCatalog = AdvancementCatalog.build(config);
+        
+        if (config.isDebugEnabled()) {
+            plugin.getLogger().info("Indexed " + advancementCatalog.size() + " scorable advancements");
+        }
+    }
+    
+    public AdvancementCatalog getAdvancementCatalog() {
+        return advancementCatalog;
+    }
+    
+    public ItemValuationEngine getItemValuationEngine() {
+        return itemValuationEngine;
+    }
+    
+    /**
+     * Get the statistic probe table, building it against the given player if needed.
+     * Must be called from the main thread.
+     */
+    public StatisticProbeTable getStatisticProbeTable(Player probe) {
+        StatisticProbeTable table = statisticProbeTable;
+        if (table == null) {
+            table = StatisticProbeTable.build(config, probe);
+            statisticProbeTable = table;
+            
+            if (config.isDebugEnabled()) {
+                plugin.getLogger().info("Built statistic probe table: " + table.getMinableBlockCount() +
+                    " blocks, " + table.getKillableEntityCount() + " entity types");
+            }
+        }
+        return table;
     }
     
     private void loadWeights() {
@@ -75,56 +122,300 @@ public class ProgressCalculator {
     
     /**
      * Calculate the overall progress score for a player.
-     * This is the main entry point for progress calculation.
+     * Convenience wrapper that captures a snapshot and scores it immediately,
+     * so it must be called from the main thread.
      * 
      * @param player The player to calculate progress for
      * @param playerData The player's stored data
      * @return ProgressResult containing the final score and breakdown
      */
     public ProgressResult calculateProgress(Player player, PlayerData playerData) {
+        return calculateProgress(captureSnapshot(player, playerData, ProgressCategory.ALL));
+    }
+    
+    /**
+     * The player's latest breakdown for display - the cached result when every
+     * category's score is current, otherwise a fresh calculation (main thread only).
+     */
+    public ProgressResult getResult(Player player, PlayerData playerData) {
+        if (playerData.getValidCategoryMask() == ProgressCategory.ALL) {
+            return getCachedResult(playerData);
+        }
+        return calculateProgress(player, playerData);
+    }
+    
+    /**
+     * Rebuild the last calculated (or persisted) breakdown without touching Bukkit state.
+     * Safe for offline players and from any thread.
+     * 
+     * @return the breakdown, or null if the player has never been scored
+     */
+    public ProgressResult getCachedResult(PlayerData playerData) {
+        if (!playerData.hasCategoryScores()) {
+            return null;
+        }
+        
+        ProgressResult result = scoreCategories(playerData.getCategoryScores(), playerData.getCurrentDeathPenalty());
+        
+        // The stored progress is what the leaderboard and API report
+        result.setFinalScore(playerData.getCurrentProgress());
+        return result;
+    }
+    
+    /**
+     * Weight a stored category score vector with the current weights.
+     * Used to re-weight stored players without rescoring them; safe from any thread.
+     * 
+     * @param scores Category scores indexed by {@link ProgressCategory#ordinal()}
+     * @param deathPenalty The player's current death penalty
+     */
+    public ProgressResult scoreCategories(double[] scores, double deathPenalty) {
         ProgressResult result = new ProgressResult();
+        if (config.isAdvancementsEnabled()) {
+            result.setAdvancementsScore(scores[ProgressCategory.ADVANCEMENTS.ordinal()]);
+            result.addToTotal(result.getAdvancementsScore() * (advancementsWeight / 100.0));
+        }
+        if (config.isExperienceEnabled()) {
+            result.setExperienceScore(scores[ProgressCategory.EXPERIENCE.ordinal()]);
+            result.addToTotal(result.getExperienceScore() * (experienceWeight / 100.0));
+        }
+        if (config.isEquipmentEnabled()) {
+            result.setEquipmentScore(scores[ProgressCategory.EQUIPMENT.ordinal()]);
+            result.addToTotal(result.getEquipmentScore() * (equipmentWeight / 100.0));
+        }
+        if (config.isEconomyEnabled() && plugin.getVaultIntegration() != null && plugin.getVaultIntegration().hasEconomy()) {
+            result.setEconomyScore(scores[ProgressCategory.ECONOMY.ordinal()]);
+            result.addToTotal(result.getEconomyScore() * (economyWeight / 100.0));
+        }
+        if (config.isStatisticsEnabled()) {
+            result.setStatisticsScore(scores[ProgressCategory.STATISTICS.ordinal()]);
+            result.addToTotal(result.getStatisticsScore() * (statisticsWeight / 100.0));
+        }
+        if (config.isAchievementsEnabled()) {
+            result.setAchievementsScore(scores[ProgressCategory.ACHIEVEMENTS.ordinal()]);
+            result.addToTotal(result.getAchievementsScore() * (achievementsWeight / 100.0));
+        }
+        if (config.isDeathPenaltyEnabled()) {
+            result.setDeathPenalty(deathPenalty);
+            result.addToTotal(-deathPenalty);
+        }
+        
+        result.setFinalScore(Math.max(config.getMinProgress(), Math.min(config.getMaxProgress(), result.getTotalScore())));
+        return result;
+    }
+    
+    /**
+     * Capture everything the calculation needs from a player.
+     * Must be called from the main thread - this is the only part of the
+     * pipeline that touches Bukkit state.
+     * 
+     * Only categories in the dirty mask (plus any without a cached score) are
+     * read from the player; the rest reuse the scores cached on PlayerData.
+     * 
+     * @param player The player to capture
+     * @param playerData The player's stored data
+     * @param dirtyMask Categories that may have changed (see {@link ProgressCategory})
+     * @return An immutable snapshot that can be scored on any thread
+     */
+    public PlayerSnapshot captureSnapshot(Player player, PlayerData playerData, int dirtyMask) {
+        int dirty = (dirtyMask | ~playerData.getValidCategoryMask()) & ProgressCategory.ALL;
+        double[] cachedScores = playerData.getCategoryScores();
+        
+        // Advancements
+        AdvancementCatalog catalog = advancementCatalog;
+        BitSet completedAdvancements = new BitSet(catalog.size());
+        if (config.isAdvancementsEnabled() && ProgressCategory.ADVANCEMENTS.isIn(dirty)) {
+            for (int i = 0; i < catalog.size(); i++) {
+                AdvancementProgress progress = player.getAdvancementProgress(catalog.getAdvancement(i));
+                if (progress.isDone()) {
+                    completedAdvancements.set(i);
+                }
+            }
+        }
         
+        // Economy
+        boolean hasEconomy = plugin.getVaultIntegration() != null && plugin.getVaultIntegration().hasEconomy();
+        double balance = hasEconomy && config.isEconomyEnabled() && ProgressCategory.ECONOMY.isIn(dirty) ?
+            plugin.getVaultIntegration().getBalance(player) : 0.0;
+        
+        // Statistics (kill/mine totals come from the running counters)
+        long mobKills = 0;
+        double mobBonus = 0.0;
+        long blocksMined = 0;
+        double blockBonus = 0.0;
+        long distance = 0;
+        int playTimeTicks = 0;
+        if (config.isStatisticsEnabled() && ProgressCategory.STATISTICS.isIn(dirty)) {
+            prepareStatisticCounters(player, playerData);
+            mobKills = playerData.getMobKillCount();
+            mobBonus = playerData.getMobKillBonus();
+            blocksMined = playerData.getBlocksMinedCount();
+            blockBonus = playerData.getBlocksMinedBonus();
+            
+            // Movement statistics don't fire increment events, so these stay direct reads
+            distance = captureDistanceTraveled(player);
+            playTimeTicks = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+        }
+        
+        // Equipment
+        ItemStack[] armor = new ItemStack[0];
+        ItemStack[] inventory = new ItemStack[0];
+        long equipmentGeneration = playerData.getEquipmentGeneration();
+        double[] inventoryComponentScores = null;
+        if (config.isEquipmentEnabled() && ProgressCategory.EQUIPMENT.isIn(dirty)) {
+            if (config.includeArmor()) {
+                armor = copyContents(player.getInventory().getArmorContents());
+            }
+            
+            // Reuse the last inventory scan if no inventory event has fired since. A full
+            // recalculation always rescans, catching changes no event reports (e.g. /give)
+            if (dirty != ProgressCategory.ALL) {
+                inventoryComponentScores = playerData.getInventoryComponentScores(equipmentGeneration);
+            }
+            if (inventoryComponentScores == null && config.includeInventory()) {
+                inventory = copyContents(player.getInventory().getContents());
+            }
+        }
+        
+        return new PlayerSnapshot(player.getUniqueId(), player.getName(), dirty, cachedScores,
+            catalog, completedAdvancements,
+            player.getLevel(), hasEconomy, balance,
+            mobKills, mobBonus, blocksMined, blockBonus, distance, playTimeTicks,
+            armor, inventory, equipmentGeneration, inventoryComponentScores, playerData.getEnderChestScores(),
+            new HashSet<>(playerData.getCompletedAchievements()), playerData.getCurrentDeathPenalty());
+    }
+    
+    /**
+     * Make sure the player's running kill/mine counters are current.
+     * Stored counters are reused when their stamps still match the live statistics;
+     * otherwise they are seeded with one full scan. Must be called from the main thread.
+     */
+    public void prepareStatisticCounters(Player player, PlayerData playerData) {
+        StatisticProbeTable table = getStatisticProbeTable(player);
+        if (playerData.areStatisticCountersSeeded() && playerData.getCounterBonusHash() == table.getBonusHash()) {
+            return;
+        }
+        
+        if (!playerData.areStatisticCountersSeeded() && playerData.verifyStatisticCounters(
+                player.getStatistic(Statistic.PLAY_ONE_MINUTE),
+                player.getStatistic(Statistic.MOB_KILLS),
+                table.getBonusHash())) {
+            return;
+        }
+        
+        long totalKills = 0;
+        double killBonus = 0.0;
+        int[] kills = table.readMobKills(player);
+        for (int i = 0; i < kills.length; i++) {
+            totalKills += kills[i];
+            killBonus += kills[i] * table.getMobBonus(i);
+        }
+        
+        long totalBlocks = 0;
+        double blockBonus = 0.0;
+        int[] mined = table.readBlocksMined(player);
+        for (int i = 0; i < mined.length; i++) {
+            totalBlocks += mined[i];
+            blockBonus += mined[i] * table.getBlockBonus(i);
+        }
+        
+        playerData.seedStatisticCounters(totalKills, killBonus, totalBlocks, blockBonus, table.getBonusHash());
+    }
+    
+    /**
+     * Sum all movement statistics in centimeters
+     */
+    private long captureDistanceTraveled(Player player) {
+        long totalDistance = 0;
+        
+        // Sum all movement types
         try {
-            // Calculate each category score (0-100 scale within that category)
+            totalDistance += player.getStatistic(Statistic.WALK_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.SPRINT_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.CROUCH_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.SWIM_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.FLY_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.BOAT_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.MINECART_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.HORSE_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.PIG_ONE_CM);
+            totalDistance += player.getStatistic(Statistic.AVIATE_ONE_CM);
+        } catch (Exception ignored) {}
+        
+        return totalDistance;
+    }
+    
+    /**
+     * Copy non-empty stacks so later inventory changes can't leak into a snapshot
+     */
+    private ItemStack[] copyContents(ItemStack[] contents) {
+        List<ItemStack> copies = new ArrayList<>(contents.length);
+        for (ItemStack item : contents) {
+            if (item != null && item.getType() != Material.AIR) {
+                copies.add(item.clone());
+            }
+        }
+        return copies.toArray(new ItemStack[0]);
+    }
+    
+    /**
+     * Score a previously captured snapshot.
+     * Pure function of the snapshot and configuration - safe to call from worker threads.
+     * 
+     * @param snapshot The snapshot to score
+     * @return ProgressResult containing the final score and breakdown
+     */
+    public ProgressResult calculateProgress(PlayerSnapshot snapshot) {
+        ProgressResult result = new ProgressResult();
+        
+        try {
+            // Calculate each category score (0-100 scale within that category),
+            // reusing the cached score for categories that aren't dirty
             if (config.isAdvancementsEnabled()) {
-                double advScore = calculateAdvancementScore(player);
+                double advScore = snapshot.isDirty(ProgressCategory.ADVANCEMENTS) ?
+                    calculateAdvancementScore(snapshot) : snapshot.getCachedScore(ProgressCategory.ADVANCEMENTS);
                 result.setAdvancementsScore(advScore);
                 result.addToTotal(advScore * (advancementsWeight / 100.0));
             }
             
             if (config.isExperienceEnabled()) {
-                double expScore = calculateExperienceScore(player);
+                double expScore = snapshot.isDirty(ProgressCategory.EXPERIENCE) ?
+                    calculateExperienceScore(snapshot) : snapshot.getCachedScore(ProgressCategory.EXPERIENCE);
                 result.setExperienceScore(expScore);
                 result.addToTotal(expScore * (experienceWeight / 100.0));
             }
             
             if (config.isEquipmentEnabled()) {
-                double eqScore = calculateEquipmentScore(player);
+                double eqScore = snapshot.isDirty(ProgressCategory.EQUIPMENT) ?
+                    calculateEquipmentScore(snapshot, result) : snapshot.getCachedScore(ProgressCategory.EQUIPMENT);
                 result.setEquipmentScore(eqScore);
                 result.addToTotal(eqScore * (equipmentWeight / 100.0));
             }
             
-            if (config.isEconomyEnabled() && plugin.getVaultIntegration() != null) {
-                double econScore = calculateEconomyScore(player);
+            if (config.isEconomyEnabled() && snapshot.hasEconomy()) {
+                double econScore = snapshot.isDirty(ProgressCategory.ECONOMY) ?
+                    calculateEconomyScore(snapshot) : snapshot.getCachedScore(ProgressCategory.ECONOMY);
                 result.setEconomyScore(econScore);
                 result.addToTotal(econScore * (economyWeight / 100.0));
             }
             
             if (config.isStatisticsEnabled()) {
-                double statScore = calculateStatisticsScore(player);
+                double statScore = snapshot.isDirty(ProgressCategory.STATISTICS) ?
+                    calculateStatisticsScore(snapshot) : snapshot.getCachedScore(ProgressCategory.STATISTICS);
                 result.setStatisticsScore(statScore);
                 result.addToTotal(statScore * (statisticsWeight / 100.0));
             }
             
             if (config.isAchievementsEnabled()) {
-                double achScore = calculateAchievementsScore(playerData);
+                double achScore = snapshot.isDirty(ProgressCategory.ACHIEVEMENTS) ?
+                    calculateAchievementsScore(snapshot) : snapshot.getCachedScore(ProgressCategory.ACHIEVEMENTS);
                 result.setAchievementsScore(achScore);
                 result.addToTotal(achScore * (achievementsWeight / 100.0));
             }
             
             // Apply death penalties
             if (config.isDeathPenaltyEnabled()) {
-                double deathPenalty = calculateDeathPenalty(player, playerData);
+                double deathPenalty = calculateDeathPenalty(snapshot);
                 result.setDeathPenalty(deathPenalty);
                 result.addToTotal(-deathPenalty);
             }
@@ -136,9 +427,9 @@ public class ProgressCalculator {
             result.setFinalScore(finalScore);
             
         } catch (Exception e) {
-            plugin.getLogger().severe("Error calculating progress for " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
+            plugin.getLogger().log(Level.SEVERE, "Error calculating progress for " + snapshot.getPlayerName(), e);
             result.setFinalScore(config.getMinProgress());
+            result.setFailed(true);
         }
         
         return result;
@@ -155,94 +446,10 @@ public class ProgressCalculator {
      * - Husbandry (farming, animals)
      * 
      * Key milestones (like killing the dragon) provide bonus points.
+     * Categorisation and milestone lookups are precomputed in {@link AdvancementCatalog}.
      */
-    private double calculateAdvancementScore(Player player) {
-        Map<String, Double> categoryScores = new HashMap<>();
-        Map<String, Integer> categoryCounts = new HashMap<>();
-        Map<String, Integer> categoryTotals = new HashMap<>();
-        
-        // Initialize categories
-        for (String category : config.getAdvancementCategoryWeights().keySet()) {
-            categoryScores.put(category, 0.0);
-            categoryCounts.put(category, 0);
-            categoryTotals.put(category, 0);
-        }
-        
-        int totalCompleted = 0;
-        int totalAdvancements = 0;
-        double milestoneBonus = 0.0;
-        
-        // Iterate through all advancements
-        Iterator<Advancement> advIterator = Bukkit.getServer().advancementIterator();
-        while (advIterator.hasNext()) {
-            Advancement advancement = advIterator.next();
-            String key = advancement.getKey().toString();
-            
-            // Skip recipe advancements
-            if (key.contains("recipes/")) {
-                continue;
-            }
-            
-            totalAdvancements++;
-            
-            // Determine category
-            String category = determineAdvancementCategory(key);
-            categoryTotals.put(category, categoryTotals.getOrDefault(category, 0) + 1);
-            
-            // Check if completed
-            AdvancementProgress progress = player.getAdvancementProgress(advancement);
-            if (progress.isDone()) {
-                totalCompleted++;
-                categoryCounts.put(category, categoryCounts.getOrDefault(category, 0) + 1);
-                
-                // Check for milestone bonus
-                double bonus = config.getAdvancementMilestoneBonus(key);
-                if (bonus > 0) {
-                    milestoneBonus += bonus;
-                }
-            }
-        }
-        
-        // Calculate category scores
-        double totalCategoryScore = 0.0;
-        double totalCategoryWeight = 0.0;
-        
-        for (String category : categoryScores.keySet()) {
-            int completed = categoryCounts.getOrDefault(category, 0);
-            int total = categoryTotals.getOrDefault(category, 1); // Avoid division by zero
-            
-            double categoryPercent = (double) completed / total * 100.0;
-            double weight = config.getAdvancementCategoryWeight(category);
-            
-            totalCategoryScore += categoryPercent * weight;
-            totalCategoryWeight += weight;
-        }
-        
-        // Normalize to 0-100 scale
-        double baseScore = totalCategoryWeight > 0 ? totalCategoryScore / totalCategoryWeight : 0.0;
-        
-        // Add milestone bonus (capped at 20% of total score)
-        double bonusScore = Math.min(milestoneBonus, 20.0);
-        
-        return Math.min(100.0, baseScore + bonusScore);
-    }
-    
-    /**
-     * Determine which category an advancement belongs to
-     */
-    private String determineAdvancementCategory(String key) {
-        if (key.contains("story/") || key.contains("minecraft:story")) {
-            return "story";
-        } else if (key.contains("nether/") || key.contains("minecraft:nether")) {
-            return "nether";
-        } else if (key.contains("end/") || key.contains("minecraft:end")) {
-            return "end";
-        } else if (key.contains("adventure/") || key.contains("minecraft:adventure")) {
-            return "adventure";
-        } else if (key.contains("husbandry/") || key.contains("minecraft:husbandry")) {
-            return "husbandry";
-        }
-        return "other";
+    private double calculateAdvancementScore(PlayerSnapshot snapshot) {
+        return snapshot.getAdvancementCatalog().score(snapshot.getCompletedAdvancements());
     }
     
     /**
@@ -254,8 +461,8 @@ public class ProgressCalculator {
      * 
      * This prevents players from grinding to level 1000 for max progress.
      */
-    private double calculateExperienceScore(Player player) {
-        int level = player.getLevel();
+    private double calculateExperienceScore(PlayerSnapshot snapshot) {
+        int level = snapshot.getLevel();
         int maxLevel = config.getMaxExperienceLevel();
         
         if (level <= 0) {
@@ -304,39 +511,53 @@ public class ProgressCalculator {
      * - Main inventory
      * - Ender chest (configurable)
      */
-    private double calculateEquipmentScore(Player player) {
-        Map<String, Double> componentScores = new HashMap<>();
-        Map<String, Double> componentMaxScores = new HashMap<>();
+    private double calculateEquipmentScore(PlayerSnapshot snapshot, ProgressResult result) {
+        ItemValuationEngine engine = itemValuationEngine;
         
-        // Initialize component maps
-        for (String component : Arrays.asList("armor", "tools", "weapons", "special")) {
-            componentScores.put(component, 0.0);
-            componentMaxScores.put(component, 100.0);
+        // The inventory is only rescanned when it may have changed
+        double[] inventoryScores = snapshot.getInventoryComponentScores();
+        if (inventoryScores == null) {
+            inventoryScores = new double[ItemValuationEngine.getComponentCount()];
+            
+            // Evaluate inventory
+            if (config.includeInventory()) {
+                evaluateInventory(engine, snapshot.getInventoryContents(), inventoryScores);
+            }
+            
+            result.setInventoryComponentScores(inventoryScores);
         }
         
-        // Evaluate equipped armor
-        if (config.includeArmor()) {
-            double armorScore = evaluateArmor(player);
-            componentScores.put("armor", armorScore);
-        }
+        double[] componentScores = inventoryScores.clone();
         
-        // Evaluate inventory
-        if (config.includeInventory()) {
-            evaluateInventory(player.getInventory().getContents(), componentScores);
+        // Evaluate equipped armor (always - it's four slots)
+        if (config.includeArmor()) {
+            componentScores[ItemValuationEngine.ARMOR] += evaluateArmor(engine, snapshot.getArmorContents());
         }
         
-        // Evaluate ender chest
+        // Ender chest (scored when it was last closed)
         if (config.includeEnderChest()) {
-            evaluateInventory(player.getEnderChest().getContents(), componentScores);
+            double[] enderChestScores = snapshot.getEnderChestComponentScores();
+            for (int component = 0; component < componentScores.length; component++) {
+                componentScores[component] += enderChestScores[component];
+            }
         }
         
-        // Calculate weighted average
+        return scoreEquipmentComponents(componentScores);
+    }
+    
+    /**
+     * Weighted average of equipment component scores (each capped at 100)
+     * 
+     * @param componentScores Scores indexed by {@link ItemValuationEngine} component
+     */
+    public double scoreEquipmentComponents(double[] componentScores) {
+        ItemValuationEngine engine = itemValuationEngine;
         double totalScore = 0.0;
         double totalWeight = 0.0;
         
-        for (String component : componentScores.keySet()) {
-            double score = Math.min(100.0, componentScores.get(component));
-            double weight = config.getEquipmentComponentWeight(component);
+        for (int component = 0; component < componentScores.length; component++) {
+            double score = Math.min(100.0, componentScores[component]);
+            double weight = engine.getComponentWeight(component);
             
             totalScore += score * weight;
             totalWeight += weight;
@@ -345,16 +566,31 @@ public class ProgressCalculator {
         return totalWeight > 0 ? totalScore / totalWeight : 0.0;
     }
     
+    /**
+     * Rescore a player's ender chest and store the result on their data.
+     * Ender chest contents only change while it is open, so this runs on join and
+     * when an ender chest is closed. Must be called from the main thread.
+     */
+    public void refreshEnderChestScores(Player player, PlayerData playerData) {
+        if (!config.isEquipmentEnabled() || !config.includeEnderChest()) {
+            return;
+        }
+        
+        double[] scores = new double[ItemValuationEngine.getComponentCount()];
+        evaluateInventory(itemValuationEngine, player.getEnderChest().getContents(), scores);
+        playerData.storeEnderChestScores(scores);
+    }
+    
     /**
      * Evaluate equipped armor pieces
      */
-    private double evaluateArmor(Player player) {
+    private double evaluateArmor(ItemValuationEngine engine, ItemStack[] armorContents) {
         double totalScore = 0.0;
         int pieces = 0;
         
-        for (ItemStack armor : player.getInventory().getArmorContents()) {
+        for (ItemStack armor : armorContents) {
             if (armor != null && armor.getType() != Material.AIR) {
-                totalScore += evaluateItem(armor, "armor");
+                totalScore += engine.evaluate(armor);
                 pieces++;
             }
         }
@@ -370,139 +606,17 @@ public class ProgressCalculator {
     /**
      * Evaluate items in an inventory
      */
-    private void evaluateInventory(ItemStack[] contents, Map<String, Double> componentScores) {
+    private void evaluateInventory(ItemValuationEngine engine, ItemStack[] contents, double[] componentScores) {
         for (ItemStack item : contents) {
             if (item == null || item.getType() == Material.AIR) {
                 continue;
             }
             
-            String component = categorizeItem(item);
-            if (component != null) {
-                double score = evaluateItem(item, component);
-                componentScores.put(component, componentScores.get(component) + score);
-            }
-        }
-    }
-    
-    /**
-     * Categorize an item into a component type
-     */
-    private String categorizeItem(ItemStack item) {
-        String typeName = item.getType().name();
-        
-        // Check for special items first
-        double specialScore = config.getSpecialItemScore(typeName);
-        if (specialScore > 0) {
-            return "special";
-        }
-        
-        // Armor
-        if (typeName.endsWith("_HELMET") || typeName.endsWith("_CHESTPLATE") || 
-            typeName.endsWith("_LEGGINGS") || typeName.endsWith("_BOOTS")) {
-            return "armor";
-        }
-        
-        // Tools
-        if (typeName.endsWith("_PICKAXE") || typeName.endsWith("_AXE") || 
-            typeName.endsWith("_SHOVEL") || typeName.endsWith("_HOE")) {
-            return "tools";
-        }
-        
-        // Weapons
-        if (typeName.endsWith("_SWORD") || typeName.equals("BOW") || 
-            typeName.equals("CROSSBOW") || typeName.equals("TRIDENT")) {
-            return "weapons";
-        }
-        
-        // Special
-        if (typeName.equals("ELYTRA") || typeName.equals("SHIELD") || 
-            typeName.equals("TOTEM_OF_UNDYING")) {
-            return "special";
-        }
-        
-        return null;
-    }
-    
-    /**
-     * Evaluate a single item's value
-     */
-    private double evaluateItem(ItemStack item, String component) {
-        if (item == null || item.getType() == Material.AIR) {
-            return 0.0;
-        }
-        
-        // Check for special item score
-        double specialScore = config.getSpecialItemScore(item.getType().name());
-        if (specialScore > 0) {
-            return specialScore;
-        }
-        
-        // Get material base score
-        String materialType = extractMaterialType(item.getType().name());
-        double baseScore = config.getMaterialScore(materialType);
-        
-        if (baseScore == 0.0) {
-            return 0.0;
-        }
-        
-        // Apply enchantment multiplier
-        double enchantmentMultiplier = 1.0;
-        if (item.hasItemMeta() && item.getItemMeta().hasEnchants()) {
-            enchantmentMultiplier = calculateEnchantmentMultiplier(item);
-        }
-        
-        baseScore *= enchantmentMultiplier;
-        
-        // Apply durability factor
-        if (item.getItemMeta() instanceof Damageable) {
-            Damageable damageable = (Damageable) item.getItemMeta();
-            if (item.getType().getMaxDurability() > 0) {
-                int maxDurability = item.getType().getMaxDurability();
-                int damage = damageable.getDamage();
-                int currentDurability = maxDurability - damage;
-                double durabilityPercent = (double) currentDurability / maxDurability * 100.0;
-                
-                if (durabilityPercent < config.getDurabilityMinimumThreshold()) {
-                    baseScore *= config.getLowDurabilityPenalty();
-                }
+            int component = engine.getComponent(item.getType());
+            if (component != ItemValuationEngine.NONE) {
+                componentScores[component] += engine.evaluate(item);
             }
         }
-        
-        return baseScore;
-    }
-    
-    /**
-     * Extract material type from item name (e.g., "DIAMOND" from "DIAMOND_SWORD")
-     */
-    private String extractMaterialType(String itemName) {
-        if (itemName.startsWith("NETHERITE_")) return "NETHERITE";
-        if (itemName.startsWith("DIAMOND_")) return "DIAMOND";
-        if (itemName.startsWith("IRON_")) return "IRON";
-        if (itemName.startsWith("GOLDEN_")) return "GOLDEN";
-        if (itemName.startsWith("STONE_")) return "STONE";
-        if (itemName.startsWith("WOODEN_") || itemName.startsWith("WOOD_")) return "WOOD";
-        if (itemName.startsWith("LEATHER_")) return "LEATHER";
-        if (itemName.startsWith("CHAINMAIL_")) return "CHAINMAIL";
-        return "UNKNOWN";
-    }
-    
-    /**
-     * Calculate enchantment multiplier for an item
-     */
-    private double calculateEnchantmentMultiplier(ItemStack item) {
-        double multiplier = 1.0;
-        double baseMultiplier = config.getEnchantmentBaseMultiplier();
-        
-        Map<Enchantment, Integer> enchantments = item.getEnchantments();
-        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
-            Enchantment enchant = entry.getKey();
-            int level = entry.getValue();
-            
-            double enchantValue = config.getEnchantmentValue(enchant.getKey().getKey().toUpperCase());
-            multiplier += (baseMultiplier * level * enchantValue);
-        }
-        
-        return multiplier;
     }
     
     /**
@@ -518,12 +632,12 @@ public class ProgressCalculator {
      * - $100,000 = ~50% progress
      * - $1,000,000 = 100% progress (max)
      */
-    private double calculateEconomyScore(Player player) {
-        if (plugin.getVaultIntegration() == null || !plugin.getVaultIntegration().hasEconomy()) {
+    private double calculateEconomyScore(PlayerSnapshot snapshot) {
+        if (!snapshot.hasEconomy()) {
             return 0.0;
         }
         
-        double balance = plugin.getVaultIntegration().getBalance(player);
+        double balance = snapshot.getBalance();
         
         if (balance <= 0) {
             return 0.0;
@@ -551,23 +665,23 @@ public class ProgressCalculator {
      * - Playtime (with diminishing returns)
      * - Death penalty
      */
-    private double calculateStatisticsScore(Player player) {
+    private double calculateStatisticsScore(PlayerSnapshot snapshot) {
         Map<String, Double> statScores = new HashMap<>();
         
         // Mob kills
-        double mobKillScore = calculateMobKillScore(player);
+        double mobKillScore = calculateMobKillScore(snapshot);
         statScores.put("mob-kills", mobKillScore);
         
         // Blocks mined
-        double blockMineScore = calculateBlockMineScore(player);
+        double blockMineScore = calculateBlockMineScore(snapshot);
         statScores.put("blocks-mined", blockMineScore);
         
         // Distance traveled
-        double distanceScore = calculateDistanceScore(player);
+        double distanceScore = calculateDistanceScore(snapshot);
         statScores.put("distance-traveled", distanceScore);
         
         // Playtime
-        double playtimeScore = calculatePlaytimeScore(player);
+        double playtimeScore = calculatePlaytimeScore(snapshot);
         statScores.put("playtime", playtimeScore);
         
         // Calculate weighted average
@@ -590,27 +704,9 @@ public class ProgressCalculator {
     /**
      * Calculate mob kill score
      */
-    private double calculateMobKillScore(Player player) {
-        int totalKills = 0;
-        double bonusPoints = 0.0;
-        
-        // Count all hostile mob kills
-        for (EntityType entityType : EntityType.values()) {
-            if (entityType.isAlive()) {
-                try {
-                    int kills = player.getStatistic(Statistic.KILL_ENTITY, entityType);
-                    totalKills += kills;
-                    
-                    // Check for special mob bonuses
-                    double bonus = config.getSpecialMobBonus(entityType.name());
-                    if (bonus > 0) {
-                        bonusPoints += (kills * bonus);
-                    }
-                } catch (IllegalArgumentException ignored) {
-                    // Entity type doesn't support this statistic
-                }
-            }
-        }
+    private double calculateMobKillScore(PlayerSnapshot snapshot) {
+        long totalKills = snapshot.getMobKillCount();
+        double bonusPoints = snapshot.getMobKillBonus();
         
         // Calculate base score with diminishing returns
         int maxKills = config.getMaxMobKills();
@@ -625,27 +721,9 @@ public class ProgressCalculator {
     /**
      * Calculate block mining score
      */
-    private double calculateBlockMineScore(Player player) {
-        int totalBlocks = 0;
-        double bonusPoints = 0.0;
-        
-        // Count all blocks mined
-        for (Material material : Material.values()) {
-            if (material.isBlock()) {
-                try {
-                    int mined = player.getStatistic(Statistic.MINE_BLOCK, material);
-                    totalBlocks += mined;
-                    
-                    // Check for valuable block bonuses
-                    double bonus = config.getValuableBlockBonus(material.name());
-                    if (bonus > 0) {
-                        bonusPoints += (mined * bonus);
-                    }
-                } catch (IllegalArgumentException ignored) {
-                    // Material doesn't support this statistic
-                }
-            }
-        }
+    private double calculateBlockMineScore(PlayerSnapshot snapshot) {
+        long totalBlocks = snapshot.getBlocksMinedCount();
+        double bonusPoints = snapshot.getBlocksMinedBonus();
         
         // Calculate base score with diminishing returns
         int maxBlocks = config.getMaxBlocksMined();
@@ -660,25 +738,9 @@ public class ProgressCalculator {
     /**
      * Calculate distance traveled score
      */
-    private double calculateDistanceScore(Player player) {
-        long totalDistance = 0;
-        
-        // Sum all movement types
-        try {
-            totalDistance += player.getStatistic(Statistic.WALK_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.SPRINT_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.CROUCH_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.SWIM_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.FLY_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.BOAT_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.MINECART_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.HORSE_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.PIG_ONE_CM);
-            totalDistance += player.getStatistic(Statistic.AVIATE_ONE_CM);
-        } catch (Exception ignored) {}
-        
+    private double calculateDistanceScore(PlayerSnapshot snapshot) {
         // Convert cm to blocks
-        long distanceBlocks = totalDistance / 100;
+        long distanceBlocks = snapshot.getDistanceTraveledCm() / 100;
         
         long maxDistance = config.getMaxDistanceTraveled();
         
@@ -689,8 +751,8 @@ public class ProgressCalculator {
     /**
      * Calculate playtime score
      */
-    private double calculatePlaytimeScore(Player player) {
-        int playTimeTicks = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+    private double calculatePlaytimeScore(PlayerSnapshot snapshot) {
+        int playTimeTicks = snapshot.getPlayTimeTicks();
         double playTimeHours = playTimeTicks / 20.0 / 60.0 / 60.0; // Convert ticks to hours
         
         int maxHours = config.getMaxPlaytimeHours();
@@ -702,8 +764,8 @@ public class ProgressCalculator {
     /**
      * Calculate custom achievements score (0-100)
      */
-    private double calculateAchievementsScore(PlayerData playerData) {
-        Set<String> completedAchievements = playerData.getCompletedAchievements();
+    private double calculateAchievementsScore(PlayerSnapshot snapshot) {
+        Set<String> completedAchievements = snapshot.getCompletedAchievements();
         Map<String, Double> allAchievements = config.getCustomAchievements();
         
         if (allAchievements.isEmpty()) {
@@ -730,11 +792,11 @@ public class ProgressCalculator {
      * - Applies penalty only for items NOT recovered
      * - No longer uses arbitrary death count penalties
      */
-    private double calculateDeathPenalty(Player player, PlayerData playerData) {
+    private double calculateDeathPenalty(PlayerSnapshot snapshot) {
         // Death penalty is now handled by GravesX integration
         // It tracks actual item loss vs recovery, not just death count
         // See GravesXIntegration.java for the smart tracking logic
-        return playerData.getCurrentDeathPenalty();
+        return snapshot.getDeathPenalty();
     }
     
     /**
@@ -750,6 +812,8 @@ public class ProgressCalculator {
         private double statisticsScore = 0.0;
         private double achievementsScore = 0.0;
         private double deathPenalty = 0.0;
+        private double[] inventoryComponentScores;
+        private boolean failed;
         
         public void addToTotal(double value) {
             this.totalScore += value;
@@ -774,5 +838,34 @@ public class ProgressCalculator {
         public void setStatisticsScore(double statisticsScore) { this.statisticsScore = statisticsScore; }
         public void setAchievementsScore(double achievementsScore) { this.achievementsScore = achievementsScore; }
         public void setDeathPenalty(double deathPenalty) { this.deathPenalty = deathPenalty; }
+        
+        /**
+         * Main inventory component scores if this calculation rescanned them, otherwise null.
+         * Armor and the ender chest aren't included - the equipment score adds them to these
+         * per component before each component is capped at 100.
+         */
+        public double[] getInventoryComponentScores() { return inventoryComponentScores; }
+        public void setInventoryComponentScores(double[] scores) { this.inventoryComponentScores = scores; }
+        
+        /**
+         * Whether the calculation threw part way through. The category scores are then
+         * incomplete and must not be cached.
+         */
+        public boolean isFailed() { return failed; }
+        public void setFailed(boolean failed) { this.failed = failed; }
+        
+        /**
+         * Category scores indexed by {@link ProgressCategory#ordinal()}
+         */
+        public double[] getCategoryScores() {
+            double[] scores = new double[ProgressCategory.values().length];
+            scores[ProgressCategory.ADVANCEMENTS.ordinal()] = advancementsScore;
+            scores[ProgressCategory.EXPERIENCE.ordinal()] = experienceScore;
+            scores[ProgressCategory.EQUIPMENT.ordinal()] = equipmentScore;
+            scores[ProgressCategory.ECONOMY.ordinal()] = economyScore;
+            scores[ProgressCategory.STATISTICS.ordinal()] = statisticsScore;
+            scores[ProgressCategory.ACHIEVEMENTS.ordinal()] = achievementsScore;
+            return scores;
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.wdp.progress.progress;
+
+/**
+ * The six weighted categories that make up a player's progress score.
+ *
+ * Each category has a bit so callers can describe which categories an event
+ * may have changed; clean categories reuse the score cached on PlayerData.
+ */
+public enum ProgressCategory {
+    ADVANCEMENTS,
+    EXPERIENCE,
+    EQUIPMENT,
+    ECONOMY,
+    STATISTICS,
+    ACHIEVEMENTS;
+
+    /** Mask with every category set */
+    public static final int ALL = (1 << values().length) - 1;
+
+    /** Mask with no category set - only the death penalty is re-applied */
+    public static final int NONE = 0;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static int mask(ProgressCategory... categories) {
+        int mask = 0;
+        for (ProgressCategory category : categories) {
+            mask |= category.bit();
+        }
+        return mask;
+    }
+}
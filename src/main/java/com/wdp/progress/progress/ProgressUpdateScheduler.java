@@ -0,0 +1,126 @@
+package com.wdp.progress.progress;
+
+import com.wdp.progress.WDPProgressPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces event-driven progress updates per player.
+ *
+ * Listeners mark the categories an event may have changed; the marks are merged
+ * into one pending update per player, which runs once the player has been quiet
+ * for the debounce window, or once the oldest mark reaches the max latency -
+ * whichever comes first. A player never has more than one calculation in flight.
+ */
+public class ProgressUpdateScheduler {
+
+    private final WDPProgressPlugin plugin;
+    private final Map<UUID, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    public ProgressUpdateScheduler(WDPProgressPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the tick task that dispatches due updates
+     */
+    public void start() {
+        stop();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Mark categories as dirty for a player. Safe to call from any thread.
+     *
+     * @param uuid The player
+     * @param categoryMask Categories that may have changed (see {@link ProgressCategory})
+     */
+    public void markDirty(UUID uuid, int categoryMask) {
+        long now = System.currentTimeMillis();
+        pending.compute(uuid, (key, update) -> {
+            if (update == null) {
+                return new PendingUpdate(categoryMask, now);
+            }
+            update.mask |= categoryMask;
+            update.lastDirty = now;
+            return update;
+        });
+    }
+
+    /**
+     * Drop any pending update for a player (e.g. on quit)
+     */
+    public void cancel(UUID uuid) {
+        pending.remove(uuid);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Dispatch every pending update whose debounce or max latency has elapsed
+     */
+    private void tick() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long debounce = plugin.getConfigManager().getUpdateDebounce();
+        long maxLatency = plugin.getConfigManager().getUpdateMaxLatency();
+
+        for (UUID uuid : pending.keySet()) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null || !player.isOnline()) {
+                pending.remove(uuid);
+                continue;
+            }
+            // Leave it pending while the previous calculation is still running
+            if (plugin.getPlayerDataManager().isCalculationInFlight(uuid)) {
+                continue;
+            }
+
+            // Take the update atomically so a concurrent mark is never lost
+            int[] dueMask = {-1};
+            pending.computeIfPresent(uuid, (key, update) -> {
+                if (now - update.lastDirty >= debounce || now - update.firstDirty >= maxLatency) {
+                    dueMask[0] = update.mask;
+                    return null;
+                }
+                return update;
+            });
+            if (dueMask[0] >= 0) {
+                plugin.getPlayerDataManager().updatePlayerProgress(uuid, dueMask[0], true);
+            }
+        }
+    }
+
+    /**
+     * Merged dirty state for one player
+     */
+    private static class PendingUpdate {
+        private int mask;
+        private final long firstDirty;
+        private long lastDirty;
+
+        PendingUpdate(int mask, long time) {
+            this.mask = mask;
+            this.firstDirty = time;
+            this.lastDirty = time;
+        }
+    }
+}
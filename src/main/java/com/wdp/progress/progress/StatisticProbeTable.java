@@ -0,0 +1,208 @@
+package com.wdp.progress.progress;
+
+import com.wdp.progress.config.ConfigManager;
+import org.bukkit.Material;
+import org.bukkit.Statistic;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precomputed lists of the Materials and EntityTypes that are valid arguments
+ * for the typed statistics we read, with config bonuses joined in as parallel arrays.
+ *
+ * Scanning Material.values() per player means over a thousand getStatistic calls,
+ * many of which throw. This table is filtered statically and then verified once
+ * against a live player, so reading a player's counters never hits an exception.
+ */
+public final class StatisticProbeTable {
+
+    // Statistic.MINE_BLOCK
+    private final Material[] minableBlocks;
+    private final double[] blockBonuses;
+
+    // Statistic.KILL_ENTITY
+    private final EntityType[] killableEntities;
+    private final double[] mobBonuses;
+
+    // Statistic.USE_ITEM over blocks (blocks placed) and Statistic.CRAFT_ITEM
+    private final Material[] placeableBlocks;
+    private final Material[] craftableItems;
+
+    // Bonuses by ordinal, for applying single statistic increments
+    private final double[] blockBonusByOrdinal;
+    private final double[] mobBonusByOrdinal;
+    private final int bonusHash;
+
+    private StatisticProbeTable(Material[] minableBlocks, double[] blockBonuses,
+                                EntityType[] killableEntities, double[] mobBonuses,
+                                Material[] placeableBlocks, Material[] craftableItems) {
+        this.minableBlocks = minableBlocks;
+        this.blockBonuses = blockBonuses;
+        this.killableEntities = killableEntities;
+        this.mobBonuses = mobBonuses;
+        this.placeableBlocks = placeableBlocks;
+        this.craftableItems = craftableItems;
+
+        this.blockBonusByOrdinal = new double[Material.values().length];
+        for (int i = 0; i < minableBlocks.length; i++) {
+            blockBonusByOrdinal[minableBlocks[i].ordinal()] = blockBonuses[i];
+        }
+        this.mobBonusByOrdinal = new double[EntityType.values().length];
+        for (int i = 0; i < killableEntities.length; i++) {
+            mobBonusByOrdinal[killableEntities[i].ordinal()] = mobBonuses[i];
+        }
+        this.bonusHash = 31 * Arrays.hashCode(blockBonuses) + Arrays.hashCode(mobBonuses);
+    }
+
+    /**
+     * Build the table, verifying every candidate against the given player.
+     * Must be called from the main thread.
+     */
+    public static StatisticProbeTable build(ConfigManager config, Player probe) {
+        List<Material> minable = new ArrayList<>();
+        List<Material> placeable = new ArrayList<>();
+        List<Material> craftable = new ArrayList<>();
+        for (Material material : Material.values()) {
+            if (material.isLegacy()) {
+                continue;
+            }
+            if (material.isBlock()) {
+                if (supports(probe, Statistic.MINE_BLOCK, material)) {
+                    minable.add(material);
+                }
+                if (material.isItem() && supports(probe, Statistic.USE_ITEM, material)) {
+                    placeable.add(material);
+                }
+            }
+            if (material.isItem() && supports(probe, Statistic.CRAFT_ITEM, material)) {
+                craftable.add(material);
+            }
+        }
+
+        List<EntityType> killable = new ArrayList<>();
+        for (EntityType entityType : EntityType.values()) {
+            if (entityType != EntityType.UNKNOWN && entityType.isAlive() && supports(probe, entityType)) {
+                killable.add(entityType);
+            }
+        }
+
+        Material[] minableBlocks = minable.toArray(new Material[0]);
+        double[] blockBonuses = new double[minableBlocks.length];
+        for (int i = 0; i < minableBlocks.length; i++) {
+            blockBonuses[i] = Math.max(0.0, config.getValuableBlockBonus(minableBlocks[i].name()));
+        }
+
+        EntityType[] killableEntities = killable.toArray(new EntityType[0]);
+        double[] mobBonuses = new double[killableEntities.length];
+        for (int i = 0; i < killableEntities.length; i++) {
+            mobBonuses[i] = Math.max(0.0, config.getSpecialMobBonus(killableEntities[i].name()));
+        }
+
+        return new StatisticProbeTable(minableBlocks, blockBonuses, killableEntities, mobBonuses,
+            placeable.toArray(new Material[0]), craftable.toArray(new Material[0]));
+    }
+
+    private static boolean supports(Player probe, Statistic statistic, Material material) {
+        try {
+            probe.getStatistic(statistic, material);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean supports(Player probe, EntityType entityType) {
+        try {
+            probe.getStatistic(Statistic.KILL_ENTITY, entityType);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Read MINE_BLOCK for every minable block, indexed like {@link #getBlockBonus(int)}
+     */
+    public int[] readBlocksMined(Player player) {
+        int[] counts = new int[minableBlocks.length];
+        for (int i = 0; i < minableBlocks.length; i++) {
+            counts[i] = player.getStatistic(Statistic.MINE_BLOCK, minableBlocks[i]);
+        }
+        return counts;
+    }
+
+    /**
+     * Read KILL_ENTITY for every killable entity, indexed like {@link #getMobBonus(int)}
+     */
+    public int[] readMobKills(Player player) {
+        int[] counts = new int[killableEntities.length];
+        for (int i = 0; i < killableEntities.length; i++) {
+            counts[i] = player.getStatistic(Statistic.KILL_ENTITY, killableEntities[i]);
+        }
+        return counts;
+    }
+
+    public int sumBlocksMined(Player player) {
+        return sum(player, Statistic.MINE_BLOCK, minableBlocks);
+    }
+
+    public int sumBlocksPlaced(Player player) {
+        return sum(player, Statistic.USE_ITEM, placeableBlocks);
+    }
+
+    public int sumItemsCrafted(Player player) {
+        return sum(player, Statistic.CRAFT_ITEM, craftableItems);
+    }
+
+    private static int sum(Player player, Statistic statistic, Material[] materials) {
+        int total = 0;
+        for (Material material : materials) {
+            total += player.getStatistic(statistic, material);
+        }
+        return total;
+    }
+
+    public int getMinableBlockCount() {
+        return minableBlocks.length;
+    }
+
+    public Material getMinableBlock(int index) {
+        return minableBlocks[index];
+    }
+
+    public double getBlockBonus(int index) {
+        return blockBonuses[index];
+    }
+
+    public int getKillableEntityCount() {
+        return killableEntities.length;
+    }
+
+    public EntityType getKillableEntity(int index) {
+        return killableEntities[index];
+    }
+
+    public double getMobBonus(int index) {
+        return mobBonuses[index];
+    }
+
+    public double getBlockBonus(Material material) {
+        return blockBonusByOrdinal[material.ordinal()];
+    }
+
+    public double getMobBonus(EntityType entityType) {
+        return mobBonusByOrdinal[entityType.ordinal()];
+    }
+
+    /**
+     * Fingerprint of the bonus configuration, so stored counters built
+     * against different bonuses can be detected and re-seeded
+     */
+    public int getBonusHash() {
+        return bonusHash;
+    }
+}
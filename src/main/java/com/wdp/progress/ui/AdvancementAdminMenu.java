@@ -1,6 +1,7 @@
 package com.wdp.progress.ui;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.progress.ProgressCategory;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
@@ -339,9 +340,7 @@ public class AdvancementAdminMenu {
         plugin.getLogger().info(admin.getName() + " granted advancement " + advancement.getKey() + " to " + target.getName());
         
         // Recalculate progress
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId());
-        });
+        plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId(), ProgressCategory.ADVANCEMENTS.bit());
     }
     
     /**
@@ -364,9 +363,7 @@ public class AdvancementAdminMenu {
         plugin.getLogger().info(admin.getName() + " revoked advancement " + advancement.getKey() + " from " + target.getName());
         
         // Recalculate progress
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId());
-        });
+        plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId(), ProgressCategory.ADVANCEMENTS.bit());
     }
     
     /**
@@ -396,9 +393,7 @@ public class AdvancementAdminMenu {
         plugin.getLogger().warning(admin.getName() + " reset ALL advancements for " + target.getName() + " (count: " + count + ")");
         
         // Recalculate progress
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId());
-        });
+        plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId(), ProgressCategory.ADVANCEMENTS.bit());
     }
     
     /**
@@ -428,9 +423,7 @@ public class AdvancementAdminMenu {
         plugin.getLogger().warning(admin.getName() + " granted ALL advancements to " + target.getName() + " (count: " + count + ")");
         
         // Recalculate progress
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId());
-        });
+        plugin.getPlayerDataManager().recalculateProgress(target.getUniqueId(), ProgressCategory.ADVANCEMENTS.bit());
     }
     
     /**
@@ -52,8 +52,8 @@ public class DeathPenaltyDetailMenu extends DetailMenu {
         items.add(createInfoItem(Material.SKELETON_SKULL, "Total Deaths", 
             String.valueOf(deaths), "Times you've died"));
         
-        // Current penalty (from ProgressResult)
-        double penalty = plugin.getProgressCalculator().calculateProgress(target, data).getDeathPenalty();
+        // Current penalty (as applied by the calculator)
+        double penalty = plugin.getConfigManager().isDeathPenaltyEnabled() ? data.getCurrentDeathPenalty() : 0.0;
         items.add(createInfoItem(Material.REDSTONE, "Current Penalty", 
             "-" + df.format(penalty) + " points", "Applied to your score"));
         
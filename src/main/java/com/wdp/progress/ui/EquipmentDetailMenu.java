@@ -147,8 +147,8 @@ public class EquipmentDetailMenu extends DetailMenu {
             }
         }
         
-        // Item value estimation
-        double value = calculateItemValue(equipment);
+        // Item value (as scored for the equipment category)
+        double value = plugin.getProgressCalculator().getItemValuationEngine().evaluate(equipment);
         if (value > 0) {
             lore.add("");
             lore.add(ChatColor.GRAY + "Est. Value: " + ChatColor.GOLD + df.format(value) + " points");
@@ -270,37 +270,6 @@ public class EquipmentDetailMenu extends DetailMenu {
         }
     }
     
-    private double calculateItemValue(ItemStack item) {
-        double value = 0;
-        
-        // Base material value
-        String tier = getMaterialTier(item.getType());
-        switch (tier) {
-            case "Netherite": value += 50; break;
-            case "Diamond": value += 30; break;
-            case "Iron": value += 15; break;
-            case "Gold": value += 10; break;
-            default: value += 5; break;
-        }
-        
-        // Enchantment value
-        for (Map.Entry<Enchantment, Integer> entry : item.getEnchantments().entrySet()) {
-            value += entry.getValue() * 5;
-        }
-        
-        // Durability factor
-        if (item.getItemMeta() instanceof Damageable) {
-            Damageable damageable = (Damageable) item.getItemMeta();
-            int maxDurability = item.getType().getMaxDurability();
-            if (maxDurability > 0) {
-                double durabilityPercent = ((maxDurability - damageable.getDamage()) * 100.0) / maxDurability;
-                value *= (durabilityPercent / 100.0);
-            }
-        }
-        
-        return value;
-    }
-    
     private String formatEnchantmentName(String key) {
         String[] parts = key.split("_");
         StringBuilder formatted = new StringBuilder();
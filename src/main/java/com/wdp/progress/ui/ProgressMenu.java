@@ -1,6 +1,7 @@
 package com.wdp.progress.ui;
 
 import com.wdp.progress.WDPProgressPlugin;
+import com.wdp.progress.data.DatabaseManager;
 import com.wdp.progress.data.PlayerData;
 import com.wdp.progress.progress.ProgressCalculator;
 import org.bukkit.Bukkit;
@@ -16,6 +17,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Interactive GUI menu for viewing player progress
@@ -25,6 +27,11 @@ public class ProgressMenu {
     private final WDPProgressPlugin plugin;
     private final DecimalFormat df = new DecimalFormat("#.#");
     
+    // History trend shown on the history item
+    private static final long HISTORY_WINDOW = 7L * 24 * 60 * 60 * 1000; // 7 days
+    private static final int SPARKLINE_POINTS = 20;
+    private static final char[] SPARK_BARS = { '▁', '▂', '▃', '▄', '▅', '▆', '▇', '█' };
+    
     // Detail menus
     private final AdvancementsDetailMenu advancementsDetailMenu;
     private final EquipmentDetailMenu equipmentDetailMenu;
@@ -71,7 +78,7 @@ public class ProgressMenu {
      */
     public void openProgressMenu(Player viewer, Player target) {
         PlayerData data = plugin.getPlayerDataManager().getPlayerData(target.getUniqueId());
-        ProgressCalculator.ProgressResult result = plugin.getProgressCalculator().calculateProgress(target, data);
+        ProgressCalculator.ProgressResult result = plugin.getProgressCalculator().getResult(target, data);
         
         Inventory inv = Bukkit.createInventory(null, 54, 
             ChatColor.DARK_PURPLE + "⚡ " + ChatColor.GOLD + target.getName() + "'s Progress " + ChatColor.DARK_PURPLE + "⚡");
@@ -91,13 +98,40 @@ public class ProgressMenu {
         
         // Information items
         inv.setItem(45, createExplainItem());
-        inv.setItem(49, createHistoryItem(target));
+        inv.setItem(49, createHistoryItem(null, 0.0, 0.0));
         inv.setItem(53, createCloseItem());
         
         // Decorative borders
         fillBorder(inv);
         
         viewer.openInventory(inv);
+        
+        // History needs database reads - fill it in once they're done
+        loadHistoryItem(viewer, inv, target.getUniqueId(), data.getCurrentProgress());
+    }
+    
+    /**
+     * Query the trend off the main thread and swap it into the menu if it's still open
+     */
+    private void loadHistoryItem(Player viewer, Inventory inv, UUID uuid, double currentProgress) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long now = System.currentTimeMillis();
+            long weekAgo = now - HISTORY_WINDOW;
+            List<DatabaseManager.ProgressHistoryEntry> trend =
+                plugin.getDatabaseManager().getDownsampledHistory(uuid, weekAgo, now, SPARKLINE_POINTS);
+            DatabaseManager.ProgressHistoryEntry dayAgo = plugin.getDatabaseManager().getProgressAt(uuid, now - 86400000L);
+            DatabaseManager.ProgressHistoryEntry weekStart = plugin.getDatabaseManager().getProgressAt(uuid, weekAgo);
+            
+            double dayChange = dayAgo != null ? currentProgress - dayAgo.getProgress() : 0.0;
+            double weekChange = weekStart != null ? currentProgress - weekStart.getProgress() :
+                (trend.isEmpty() ? 0.0 : currentProgress - trend.get(0).getProgress());
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (viewer.isOnline() && viewer.getOpenInventory().getTopInventory() == inv) {
+                    inv.setItem(49, createHistoryItem(trend, dayChange, weekChange));
+                }
+            });
+        });
     }
     
     /**
@@ -558,8 +592,10 @@ public class ProgressMenu {
     
     /**
      * Create history item
+     * 
+     * @param trend Downsampled history for the last week, or null while it's loading
      */
-    private ItemStack createHistoryItem(Player target) {
+    private ItemStack createHistoryItem(List<DatabaseManager.ProgressHistoryEntry> trend, double dayChange, double weekChange) {
         ItemStack item = new ItemStack(Material.CLOCK);
         ItemMeta meta = item.getItemMeta();
         
@@ -567,12 +603,26 @@ public class ProgressMenu {
         
         List<String> lore = new ArrayList<>();
         lore.add("");
-        lore.add(ChatColor.GRAY + "View your progress over time");
-        lore.add("");
-        lore.add(ChatColor.YELLOW + "Coming soon:");
-        lore.add(ChatColor.GRAY + "• Progress graph");
-        lore.add(ChatColor.GRAY + "• Historical data");
-        lore.add(ChatColor.GRAY + "• Trends and statistics");
+        if (trend == null) {
+            lore.add(ChatColor.GRAY + "Loading history...");
+        } else if (trend.isEmpty()) {
+            lore.add(ChatColor.GRAY + "No progress changes in the last 7 days");
+        } else {
+            double low = Double.MAX_VALUE;
+            double high = -Double.MAX_VALUE;
+            for (DatabaseManager.ProgressHistoryEntry entry : trend) {
+                low = Math.min(low, entry.getProgress());
+                high = Math.max(high, entry.getProgress());
+            }
+            
+            lore.add(ChatColor.YELLOW + "Last 7 days:");
+            lore.add(ChatColor.AQUA + createSparkline(trend, low, high));
+            lore.add("");
+            lore.add(ChatColor.GRAY + "Low: " + ChatColor.WHITE + df.format(low) +
+                ChatColor.GRAY + "  High: " + ChatColor.WHITE + df.format(high));
+            lore.add(ChatColor.GRAY + "24h change: " + formatChange(dayChange));
+            lore.add(ChatColor.GRAY + "7d change: " + formatChange(weekChange));
+        }
         lore.add("");
         
         meta.setLore(lore);
@@ -581,6 +631,28 @@ public class ProgressMenu {
         return item;
     }
     
+    /**
+     * Render history as a one-line bar chart scaled between low and high
+     */
+    private String createSparkline(List<DatabaseManager.ProgressHistoryEntry> trend, double low, double high) {
+        StringBuilder line = new StringBuilder();
+        double range = high - low;
+        for (DatabaseManager.ProgressHistoryEntry entry : trend) {
+            int level = range > 0 ? (int) Math.round((entry.getProgress() - low) / range * (SPARK_BARS.length - 1)) : SPARK_BARS.length / 2;
+            line.append(SPARK_BARS[level]);
+        }
+        return line.toString();
+    }
+    
+    private String formatChange(double change) {
+        if (change > 0) {
+            return ChatColor.GREEN + "+" + df.format(change);
+        } else if (change < 0) {
+            return ChatColor.RED + df.format(change);
+        }
+        return ChatColor.GRAY + "±0";
+    }
+    
     /**
      * Create close item
      */
@@ -172,37 +172,15 @@ public class StatisticsDetailMenu extends DetailMenu {
     }
     
     private int getBlocksBroken(Player target) {
-        int total = 0;
-        for (Material mat : Material.values()) {
-            if (mat.isBlock()) {
-                try {
-                    total += target.getStatistic(Statistic.MINE_BLOCK, mat);
-                } catch (Exception ignored) {}
-            }
-        }
-        return total;
+        return plugin.getProgressCalculator().getStatisticProbeTable(target).sumBlocksMined(target);
     }
     
     private int getBlocksPlaced(Player target) {
-        int total = 0;
-        for (Material mat : Material.values()) {
-            if (mat.isBlock()) {
-                try {
-                    total += target.getStatistic(Statistic.USE_ITEM, mat);
-                } catch (Exception ignored) {}
-            }
-        }
-        return total;
+        return plugin.getProgressCalculator().getStatisticProbeTable(target).sumBlocksPlaced(target);
     }
     
     private int getTotalCrafted(Player target) {
-        int total = 0;
-        for (Material mat : Material.values()) {
-            try {
-                total += target.getStatistic(Statistic.CRAFT_ITEM, mat);
-            } catch (Exception ignored) {}
-        }
-        return total;
+        return plugin.getProgressCalculator().getStatisticProbeTable(target).sumItemsCrafted(target);
     }
     
     private int getFoodEaten(Player target) {